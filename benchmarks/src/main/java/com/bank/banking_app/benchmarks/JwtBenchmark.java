@@ -0,0 +1,52 @@
+package com.bank.banking_app.benchmarks;
+
+import com.bank.banking_app.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue on login and token check on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken(EMAIL);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(EMAIL);
+    }
+
+    // Same token on every call, as a client replaying its bearer token does.
+    @Benchmark
+    public String extraSubject() {
+        return JwtUtil.extraSubject(token);
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return JwtUtil.isValid(token);
+    }
+}
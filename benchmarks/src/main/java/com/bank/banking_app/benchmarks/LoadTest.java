@@ -0,0 +1,252 @@
+package com.bank.banking_app.benchmarks;
+
+import com.bank.banking_app.BankingAppApplication;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.JwtUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load test comparing Tomcat platform threads with virtual
+ * threads on POST /api/transactions/transfer and GET /api/transactions.
+ * <p>
+ * Each mode boots the application (bench profile, embedded H2 unless
+ * --spring.datasource.* arguments are given; every --option is handed to
+ * Spring), seeds accounts
+ * and runs a fixed number of concurrent clients; every client alternates a
+ * transfer and a history read and records latencies after the warm-up.
+ * <p>
+ * Run: {@code mvn -f benchmarks/pom.xml -Pload-test package exec:exec
+ * -Dload.args="clients=400 duration=30"}. H2 answers from memory, so the gap
+ * between the modes only shows once the database has real I/O latency: point
+ * it at MySQL for representative numbers. Modes share one JVM and the first
+ * pays for JIT warm-up; pass modes=platform and modes=virtual in separate runs
+ * when comparing closely.
+ */
+public final class LoadTest {
+
+    private static final BigDecimal SEED_BALANCE = new BigDecimal("1000000000.00");
+
+    private final int clients;
+    private final int accounts;
+    private final Duration warmup;
+    private final Duration duration;
+    private final List<String> springArgs;
+
+    private LoadTest(Map<String, String> options, List<String> springArgs) {
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        this.accounts = Integer.parseInt(options.getOrDefault("accounts", "100"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.springArgs = springArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "platform,virtual").split(","));
+
+        LoadTest loadTest = new LoadTest(options, springArgs);
+        List<String> report = new ArrayList<>();
+        for (String mode : modes)
+            report.addAll(loadTest.run(mode));
+
+        System.out.printf("%n%-9s %-9s %9s %7s %9s %8s %8s %8s%n",
+                "mode", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        report.forEach(System.out::println);
+    }
+
+    private List<String> run(String mode) throws Exception {
+        boolean virtual = switch (mode) {
+            case "virtual" -> true;
+            case "platform" -> false;
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        };
+
+        List<String> runArgs = new ArrayList<>(springArgs);
+        runArgs.add("--spring.threads.virtual.enabled=" + virtual);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingAppApplication.class)
+                .profiles("bench")
+                .run(runArgs.toArray(String[]::new));
+        try {
+            seed(context, mode);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            return drive(mode, baseUrl);
+        } finally {
+            context.close();
+        }
+    }
+
+    private List<String> drive(String mode, String baseUrl) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Future<Samples[]>> futures = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int sender = c % accounts;
+                int receiver = (sender + 1) % accounts;
+                futures.add(callers.submit(() -> client(http, baseUrl, mode, sender, receiver, measureFrom, stopAt)));
+            }
+        }
+
+        Samples transfers = new Samples();
+        Samples history = new Samples();
+        for (Future<Samples[]> future : futures) {
+            Samples[] samples = future.get();
+            transfers.addAll(samples[0]);
+            history.addAll(samples[1]);
+        }
+        return List.of(transfers.row(mode, "transfer", duration), history.row(mode, "history", duration));
+    }
+
+    private static Samples[] client(HttpClient http, String baseUrl, String mode, int sender, int receiver,
+                                    long measureFrom, long stopAt) throws InterruptedException {
+        String bearer = "Bearer " + JwtUtil.generateToken(email(mode, sender));
+        HttpRequest transfer = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions/transfer"))
+                .header("Authorization", bearer)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"receiverAccountNumber\":\"" + accountNumber(mode, receiver) + "\",\"amount\":1.00}"))
+                .build();
+        HttpRequest history = HttpRequest.newBuilder(URI.create(baseUrl + "/api/transactions?size=10"))
+                .header("Authorization", bearer)
+                .GET()
+                .build();
+
+        Samples transfers = new Samples();
+        Samples reads = new Samples();
+        while (System.nanoTime() < stopAt) {
+            call(http, transfer, transfers, measureFrom);
+            call(http, history, reads, measureFrom);
+        }
+        return new Samples[]{transfers, reads};
+    }
+
+    private static void call(HttpClient http, HttpRequest request, Samples samples, long measureFrom)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 300;
+        } catch (java.io.IOException e) {
+            ok = false;
+        }
+        if (start >= measureFrom)
+            samples.record(System.nanoTime() - start, ok);
+    }
+
+    private void seed(ConfigurableApplicationContext context, String mode) {
+        UserRepository users = context.getBean(UserRepository.class);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        for (int i = 0; i < accounts; i++) {
+            if (accountRepository.existsByAccountNumber(accountNumber(mode, i)))
+                continue;
+
+            String suffix = "%08d".formatted(i);
+            Users user = users.save(Users.builder()
+                    .fullName("Load " + mode + " " + i)
+                    .email(email(mode, i))
+                    .phone(modeDigit(mode) + "7" + suffix)
+                    .password("load")
+                    .aadhaarNumber(modeDigit(mode) + "600" + suffix)
+                    .panCardNumber("LD" + modeDigit(mode) + "%06dZ".formatted(i))
+                    .kycStatus(KycStatus.VERIFIED)
+                    .build());
+            accountRepository.save(Account.builder()
+                    .accountNumber(accountNumber(mode, i))
+                    .accountType(AccountType.SAVINGS)
+                    .balance(SEED_BALANCE)
+                    .status(KycStatus.AccountStatus.ACTIVE)
+                    .user(user)
+                    .build());
+        }
+    }
+
+    private static String email(String mode, int i) {
+        return "load-" + mode + "-" + i + "@bench.example.com";
+    }
+
+    private static String accountNumber(String mode, int i) {
+        return modeDigit(mode) + "8" + "%010d".formatted(i);
+    }
+
+    private static String modeDigit(String mode) {
+        return mode.equals("virtual") ? "2" : "1";
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (size == latencies.length)
+                latencies = Arrays.copyOf(latencies, size * 2);
+            latencies[size++] = nanos;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++)
+                record(other.latencies[i], true);
+            errors += other.errors;
+        }
+
+        String row(String mode, String endpoint, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return "%-9s %-9s %9d %7d %9.1f %8.2f %8.2f %8.2f".formatted(
+                    mode, endpoint, size, errors, size / (double) duration.toSeconds(),
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                    millis(size == 0 ? 0 : sorted[size - 1]));
+        }
+
+        private static long percentile(long[] sorted, double p) {
+            if (sorted.length == 0)
+                return 0;
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
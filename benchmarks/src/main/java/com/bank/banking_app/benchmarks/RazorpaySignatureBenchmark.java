@@ -0,0 +1,103 @@
+package com.bank.banking_app.benchmarks;
+
+import com.bank.banking_app.service.HmacSha256Verifier;
+import com.bank.banking_app.service.RazorpayService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HMAC checks done by /api/payments/verify for every checkout callback and by
+ * /api/payments/webhook for every event, run from several threads at once as
+ * in a webhook burst. legacyVerifySignature is the per-call Mac.getInstance /
+ * StringBuilder hex / String.equals version it replaced; run with -prof gc and
+ * compare gc.alloc.rate.norm (bytes per call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class RazorpaySignatureBenchmark {
+
+    private static final String KEY_SECRET = "rzp_bench_secret";
+    private static final String WEBHOOK_SECRET = "whsec_bench_secret";
+    private static final String ORDER_ID = "order_NbJ5Q3hV9kPz1a";
+    private static final String PAYMENT_ID = "pay_NbJ5ZcV0Yv8nQd";
+
+    private RazorpayService razorpayService;
+    private HmacSha256Verifier webhookSignatures;
+    private String signature;
+    private byte[] webhookBody;
+    private String webhookSignature;
+
+    @Setup
+    public void setUp() throws Exception {
+        // verifySignature never touches the HTTP side of the service
+        razorpayService = new RazorpayService(null, null, null,
+                "http://localhost", Duration.ofSeconds(1), "rzp_bench_key", KEY_SECRET);
+        webhookSignatures = new HmacSha256Verifier(WEBHOOK_SECRET, Runtime.getRuntime().availableProcessors());
+
+        signature = hmacHex(KEY_SECRET, (ORDER_ID + "|" + PAYMENT_ID).getBytes(StandardCharsets.UTF_8));
+
+        // Roughly the size of a real payment.captured event
+        webhookBody = ("{\"entity\":\"event\",\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":"
+                + "{\"id\":\"" + PAYMENT_ID + "\",\"order_id\":\"" + ORDER_ID + "\",\"amount\":50000,"
+                + "\"currency\":\"INR\",\"status\":\"captured\",\"notes\":\"" + "n".repeat(1500) + "\"}}}}")
+                .getBytes(StandardCharsets.UTF_8);
+        webhookSignature = hmacHex(WEBHOOK_SECRET, webhookBody);
+    }
+
+    @Benchmark
+    public boolean verifySignature() {
+        return razorpayService.verifySignature(ORDER_ID, PAYMENT_ID, signature);
+    }
+
+    @Benchmark
+    public boolean verifyWebhook() {
+        return webhookSignatures.verify(webhookBody, webhookSignature);
+    }
+
+    @Benchmark
+    public boolean legacyVerifySignature() throws Exception {
+        String data = ORDER_ID + "|" + PAYMENT_ID;
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        SecretKeySpec secretKeySpec = new SecretKeySpec(KEY_SECRET.getBytes(), "HmacSHA256");
+        mac.init(secretKeySpec);
+
+        byte[] hash = mac.doFinal(data.getBytes());
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString().equals(signature);
+    }
+
+    private static String hmacHex(String secret, byte[] data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data));
+    }
+}
@@ -0,0 +1,153 @@
+package com.bank.banking_app.benchmarks;
+
+import com.bank.banking_app.BankingAppApplication;
+import com.bank.banking_app.dto.request.TransferRequest;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.AccountPrincipal;
+import com.bank.banking_app.security.AccountPrincipalCache;
+import com.bank.banking_app.service.TransferService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end TransferService.transfer: conditional UPDATEs, balance read-back,
+ * the two transaction rows and the two-leg ledger journal, against H2 in
+ * MySQL mode with the Flyway schema.
+ * "crossing" runs A->B and B->A concurrently to exercise the id-ordered locking.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Hibernate and H2 need far longer than the micro benchmarks to reach steady state
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class TransferBenchmark {
+
+    static final String ALICE = "alice@bench.example.com";
+    static final String BOB = "bob@bench.example.com";
+    static final String ALICE_ACCOUNT = "900000000001";
+    static final String BOB_ACCOUNT = "900000000002";
+
+    @State(Scope.Benchmark)
+    public static class Application {
+
+        ConfigurableApplicationContext context;
+        TransferService transferService;
+        AccountPrincipalCache principalCache;
+
+        @Setup
+        public void start() {
+            context = new SpringApplicationBuilder(BankingAppApplication.class)
+                    .profiles("bench")
+                    .run();
+            transferService = context.getBean(TransferService.class);
+            principalCache = context.getBean(AccountPrincipalCache.class);
+
+            UserRepository users = context.getBean(UserRepository.class);
+            AccountRepository accounts = context.getBean(AccountRepository.class);
+            seed(users, accounts, "Alice", ALICE, "9000000001", "900000000001", "ALICE1234A", ALICE_ACCOUNT);
+            seed(users, accounts, "Bob", BOB, "9000000002", "900000000002", "BOBBB1234B", BOB_ACCOUNT);
+        }
+
+        @TearDown
+        public void stop() {
+            context.close();
+        }
+
+        private static void seed(UserRepository users, AccountRepository accounts, String name, String email,
+                                 String phone, String aadhaar, String pan, String accountNumber) {
+            Users user = users.save(Users.builder()
+                    .fullName(name)
+                    .email(email)
+                    .phone(phone)
+                    .password("bench")
+                    .aadhaarNumber(aadhaar)
+                    .panCardNumber(pan)
+                    .kycStatus(KycStatus.VERIFIED)
+                    .build());
+            accounts.save(Account.builder()
+                    .accountNumber(accountNumber)
+                    .accountType(AccountType.SAVINGS)
+                    .balance(new BigDecimal("1000000000000.00"))
+                    .status(KycStatus.AccountStatus.ACTIVE)
+                    .user(user)
+                    .build());
+        }
+    }
+
+    // The SecurityContext is thread-local, so each benchmark thread signs in
+    // on its own thread before measuring.
+    public abstract static class Caller {
+
+        TransferRequest request;
+
+        void signIn(Application app, String email, String receiverAccountNumber) {
+            AccountPrincipal principal = app.principalCache.get(email).orElseThrow();
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+
+            request = new TransferRequest();
+            request.setReceiverAccountNumber(receiverAccountNumber);
+            request.setAmount(BigDecimal.ONE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AliceToBob extends Caller {
+        @Setup
+        public void setUp(Application app) {
+            signIn(app, ALICE, BOB_ACCOUNT);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BobToAlice extends Caller {
+        @Setup
+        public void setUp(Application app) {
+            signIn(app, BOB, ALICE_ACCOUNT);
+        }
+    }
+
+    @Benchmark
+    public void transfer(Application app, AliceToBob caller) {
+        app.transferService.transfer(caller.request);
+    }
+
+    @Benchmark
+    @Group("crossing")
+    @GroupThreads(1)
+    public void crossingAliceToBob(Application app, AliceToBob caller) {
+        app.transferService.transfer(caller.request);
+    }
+
+    @Benchmark
+    @Group("crossing")
+    @GroupThreads(1)
+    public void crossingBobToAlice(Application app, BobToAlice caller) {
+        app.transferService.transfer(caller.request);
+    }
+}
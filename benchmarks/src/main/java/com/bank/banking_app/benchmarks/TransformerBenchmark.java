@@ -0,0 +1,111 @@
+package com.bank.banking_app.benchmarks;
+
+import com.bank.banking_app.Transformer.TransactionHistoryTransformer;
+import com.bank.banking_app.Transformer.TransactionTransformer;
+import com.bank.banking_app.dto.response.TransactionHistoryResponse;
+import com.bank.banking_app.dto.response.TransactionHistorySliceResponse;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.TransactionStatus;
+import com.bank.banking_app.enums.TransactionType;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Transaction;
+import com.bank.banking_app.repository.TransactionHistoryRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity builders used by every money movement and the history DTO mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransformerBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private Account account;
+    private BigDecimal amount;
+    private BigDecimal before;
+    private BigDecimal after;
+    private Transaction transaction;
+    private TransactionHistoryRow row;
+    private SliceImpl<TransactionHistoryRow> slice;
+
+    @Setup
+    public void setUp() {
+        account = Account.builder()
+                .id(1L)
+                .accountNumber("200000000001")
+                .accountType(AccountType.SAVINGS)
+                .balance(new BigDecimal("10000.00"))
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .build();
+        amount = new BigDecimal("250.00");
+        before = new BigDecimal("10000.00");
+        after = before.subtract(amount);
+
+        LocalDateTime now = LocalDateTime.now();
+        transaction = TransactionTransformer.transferDebit(
+                account, amount, before, after, TransactionStatus.SUCCESS);
+        transaction.setId(1L);
+        transaction.setTransactionId(UUID.randomUUID().toString());
+        transaction.setCreatedAt(now);
+
+        // What the history queries now project instead of loading entities
+        List<TransactionHistoryRow> rows = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            rows.add(new TransactionHistoryRow((long) (pageSize - i), UUID.randomUUID().toString(),
+                    TransactionType.TRANSFER, amount, before, after, TransactionStatus.SUCCESS, now.minusSeconds(i)));
+        }
+        row = rows.get(0);
+        slice = new SliceImpl<>(rows, PageRequest.of(0, pageSize), true);
+    }
+
+    @Benchmark
+    public Transaction depositTransaction() {
+        return TransactionTransformer.depositTransaction(account, amount, before, after);
+    }
+
+    @Benchmark
+    public Transaction transferDebit() {
+        return TransactionTransformer.transferDebit(account, amount, before, after, TransactionStatus.SUCCESS);
+    }
+
+    @Benchmark
+    public TransactionHistoryResponse transactionToResponse() {
+        return TransactionHistoryTransformer.transactionToResponse(transaction);
+    }
+
+    @Benchmark
+    public TransactionHistoryResponse rowToResponse() {
+        return TransactionHistoryTransformer.rowToResponse(row);
+    }
+
+    @Benchmark
+    public TransactionHistorySliceResponse sliceToResponse() {
+        return TransactionHistoryTransformer.sliceToResponse(slice);
+    }
+}
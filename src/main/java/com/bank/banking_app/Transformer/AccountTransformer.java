@@ -19,6 +19,8 @@ public class AccountTransformer {
                     .accountNumber(accountNumber)
                     .accountType(accountType)
                     .balance(balance)
+                    // the opening deposit is ledger entry 1 (LedgerService.recordOpening)
+                    .ledgerSeq(1)
                     .status(status)
                     .user(user)
                     .build();
@@ -1,20 +1,21 @@
 package com.bank.banking_app.Transformer;
 
 import com.bank.banking_app.dto.response.MeResponse;
-import com.bank.banking_app.models.Account;
-import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.ProfileView;
+
+import java.math.BigDecimal;
 
 public class MeTransformer {
-    public static MeResponse userAndAccountToMeResponse(Users user, Account account){
+    public static MeResponse profileToMeResponse(ProfileView profile, BigDecimal balance){
         return MeResponse.builder()
-                .fullName(user.getFullName())
-                .email(user.getEmail())
-                .phone(user.getPhone())
-                .kycStatus(user.getKycStatus())
-                .accountNumber(account.getAccountNumber())
-                .accountType(account.getAccountType())
-                .balance(account.getBalance())
-                .status(account.getStatus())
+                .fullName(profile.fullName())
+                .email(profile.email())
+                .phone(profile.phone())
+                .kycStatus(profile.kycStatus())
+                .accountNumber(profile.accountNumber())
+                .accountType(profile.accountType())
+                .balance(balance)
+                .status(profile.status())
                 .build();
     }
 }
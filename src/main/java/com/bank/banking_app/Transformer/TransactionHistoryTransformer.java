@@ -1,7 +1,13 @@
 package com.bank.banking_app.Transformer;
 
+import com.bank.banking_app.dto.request.HistoryCursor;
 import com.bank.banking_app.dto.response.TransactionHistoryResponse;
+import com.bank.banking_app.dto.response.TransactionHistorySliceResponse;
 import com.bank.banking_app.models.Transaction;
+import com.bank.banking_app.repository.TransactionHistoryRow;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 public class TransactionHistoryTransformer {
 
@@ -17,4 +23,33 @@ public class TransactionHistoryTransformer {
                 .createdAt(transaction.getCreatedAt())
                 .build();
     }
+
+    public static TransactionHistoryResponse rowToResponse(TransactionHistoryRow row) {
+
+        return TransactionHistoryResponse.builder()
+                .transactionId(row.transactionId())
+                .transactionType(row.transactionType())
+                .amount(row.amount())
+                .balanceBefore(row.balanceBefore())
+                .balanceAfter(row.balanceAfter())
+                .status(row.status())
+                .createdAt(row.createdAt())
+                .build();
+    }
+
+    public static TransactionHistorySliceResponse sliceToResponse(Slice<TransactionHistoryRow> slice) {
+
+        List<TransactionHistoryRow> rows = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            TransactionHistoryRow last = rows.get(rows.size() - 1);
+            nextCursor = new HistoryCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return TransactionHistorySliceResponse.builder()
+                .content(rows.stream().map(TransactionHistoryTransformer::rowToResponse).toList())
+                .nextCursor(nextCursor)
+                .hasNext(slice.hasNext())
+                .build();
+    }
 }
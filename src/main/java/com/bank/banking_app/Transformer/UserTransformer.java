@@ -8,11 +8,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class UserTransformer {
 
     public static Users accountRequestToUser(OpenAccountRequest request, PasswordEncoder encoder) {
+        return accountRequestToUser(request, encoder.encode(request.getPassword()));
+    }
+
+    // For callers that hash in bulk before building the users
+    public static Users accountRequestToUser(OpenAccountRequest request, String passwordHash) {
         return Users.builder()
                 .fullName(request.getFullName())
                 .email(request.getEmail())
                 .phone(request.getPhone())
-                .password(encoder.encode(request.getPassword()))
+                .password(passwordHash)
                 .aadhaarNumber(request.getAadhaarNumber())
                 .panCardNumber(request.getPanCardNumber())
                 .kycStatus(KycStatus.VERIFIED)
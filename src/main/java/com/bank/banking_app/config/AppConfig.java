@@ -1,15 +1,51 @@
 package com.bank.banking_app.config;
 
+import com.bank.banking_app.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
 
 @Configuration
 public class AppConfig {
 
+    // BCryptPasswordEncoder's own default; calibration never goes below it
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${banking.password.bcrypt-strength:0}") int strength,
+            @Value("${banking.password.target-hash-time:PT0.1S}") Duration targetHashTime,
+            @Value("${banking.password.hash-threads:0}") int threads,
+            @Value("${banking.password.hash-queue-capacity:128}") int queueCapacity){
+        if (strength <= 0)
+            strength = calibrate(targetHashTime);
+        if (threads <= 0)
+            threads = Runtime.getRuntime().availableProcessors();
+        // Stored hashes below this strength are rehashed on the next successful login
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), threads, queueCapacity, meterRegistry);
+    }
+
+    // Highest strength whose hash still fits in the target on this machine.
+    // Each step doubles the work, so one timing at the minimum is enough.
+    static int calibrate(Duration targetHashTime) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_STRENGTH);
+        long nanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && nanos * 2 <= targetHashTime.toNanos()) {
+            nanos *= 2;
+            strength++;
+        }
+        return strength;
     }
 }
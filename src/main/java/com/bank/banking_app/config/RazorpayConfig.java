@@ -0,0 +1,35 @@
+package com.bank.banking_app.config;
+
+import com.bank.banking_app.exception.PaymentGatewayException;
+import com.bank.banking_app.service.CircuitBreaker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class RazorpayConfig {
+
+    // One client for the life of the app: it owns the keep-alive connection
+    // pool and TLS sessions to the gateway, which per-call clients threw away.
+    @Bean
+    public HttpClient razorpayHttpClient(
+            @Value("${razorpay.http.connect-timeout:2s}") Duration connectTimeout) {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    @Bean
+    public CircuitBreaker razorpayCircuitBreaker(
+            @Value("${razorpay.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${razorpay.circuit.open-duration:30s}") Duration openDuration,
+            @Value("${razorpay.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        return new CircuitBreaker("Payment gateway", failureThreshold, openDuration,
+                maxConcurrentCalls, PaymentGatewayException.class);
+    }
+}
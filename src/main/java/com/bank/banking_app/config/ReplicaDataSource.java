@@ -0,0 +1,111 @@
+package com.bank.banking_app.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions: round robin over the read replicas
+ * that are caught up, or the primary when none is.
+ * <p>
+ * Lag is measured with a heartbeat row rather than engine-specific
+ * replication status: each check bumps replica_heartbeat.beat_at on the
+ * primary and compares it with the value each replica has replicated, both
+ * stamped by the primary's clock. A replica more than maxLag behind, or
+ * unreachable, gets no reads until a later check finds it caught up.
+ */
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final String BEAT = "update replica_heartbeat set beat_at = CURRENT_TIMESTAMP(6) where id = 1";
+    private static final String READ_BEAT = "select beat_at from replica_heartbeat where id = 1";
+
+    private final DataSource primary;
+    private final JdbcTemplate primaryJdbc;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(DataSource primary, List<DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy)
+                continue;
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                // Out until the next check finds it reachable again
+                replica.healthy = false;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    @Scheduled(fixedDelayString = "${banking.read-replicas.lag-check-interval:PT5S}")
+    public void checkReplicas() {
+        Timestamp primaryBeat;
+        try {
+            primaryJdbc.update(BEAT);
+            primaryBeat = primaryJdbc.queryForObject(READ_BEAT, Timestamp.class);
+        } catch (RuntimeException e) {
+            // Nothing to compare against; keep the last verdicts.
+            return;
+        }
+
+        for (Replica replica : replicas) {
+            try {
+                Timestamp replicaBeat = replica.jdbc.queryForObject(READ_BEAT, Timestamp.class);
+                replica.healthy = primaryBeat.getTime() - replicaBeat.getTime() <= maxLagMillis;
+            } catch (RuntimeException e) {
+                replica.healthy = false;
+            }
+        }
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable)
+                closeable.close();
+        }
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        // Starts out of rotation: the first check has to find it caught up
+        private volatile boolean healthy;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+        }
+    }
+}
@@ -1,33 +1,68 @@
 package com.bank.banking_app.config;
 
+import com.bank.banking_app.security.AccountPrincipalCache;
+import com.bank.banking_app.security.IdempotencyFilter;
 import com.bank.banking_app.security.JwtAuthenticationFilter;
+import com.bank.banking_app.security.OperatorTokenFilter;
+import com.bank.banking_app.service.IdempotencyService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 public class SecurityConfig {
+        private static final Set<String> OPEN_ACTUATOR_PATHS = Set.of("/actuator/health", "/actuator/prometheus");
+
         @Bean
-        public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        public SecurityFilterChain filterChain(HttpSecurity http, AccountPrincipalCache principalCache,
+                                               IdempotencyService idempotencyService,
+                                               @Value("${banking.operator-token:}") String operatorToken,
+                                               Environment environment)
+                        throws Exception {
+                // Health and the Prometheus scrape need no token on the management port
+                // (management.server.port, kept off the public network) and only there:
+                // on the API port they need a JWT like everything else.
+                RequestMatcher openActuator = request ->
+                                Integer.valueOf(request.getLocalPort())
+                                                .equals(environment.getProperty("local.management.port", Integer.class))
+                                                && OPEN_ACTUATOR_PATHS.contains(request.getRequestURI());
+
                 http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
                                 .csrf(csrf -> csrf.disable())
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                                 .authorizeHttpRequests(auth -> auth.requestMatchers(
                                                 "/api/accounts/open",
-                                                "/api/auth/login").permitAll().anyRequest().authenticated())
+                                                "/api/auth/login",
+                                                "/api/payments/webhook").permitAll()
+                                                .requestMatchers(openActuator).permitAll()
+                                                // Customer JWTs never carry this role
+                                                .requestMatchers(OperatorTokenFilter.PATH_PREFIXES.stream()
+                                                                .map(prefix -> prefix + "**").toArray(String[]::new))
+                                                .hasRole(OperatorTokenFilter.ROLE)
+                                                .anyRequest().authenticated())
                                 .addFilterBefore(
-                                                new JwtAuthenticationFilter(),
-                                                UsernamePasswordAuthenticationFilter.class);
+                                                new JwtAuthenticationFilter(principalCache),
+                                                UsernamePasswordAuthenticationFilter.class)
+                                .addFilterAfter(
+                                                new IdempotencyFilter(idempotencyService),
+                                                JwtAuthenticationFilter.class)
+                                .addFilterAfter(
+                                                new OperatorTokenFilter(operatorToken),
+                                                JwtAuthenticationFilter.class);
                 return http.build();
         }
 
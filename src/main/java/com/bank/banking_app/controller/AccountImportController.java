@@ -0,0 +1,61 @@
+package com.bank.banking_app.controller;
+
+import com.bank.banking_app.dto.response.AccountImportRowError;
+import com.bank.banking_app.dto.response.AccountImportSummary;
+import com.bank.banking_app.service.AccountImportService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+// Off unless banking.account-import.enabled=true: run it on the instance doing the migration
+@RestController
+@RequestMapping("/api/accounts/import")
+@ConditionalOnProperty(name = "banking.account-import.enabled", havingValue = "true")
+public class AccountImportController {
+
+    private final AccountImportService accountImportService;
+    private final JsonMapper jsonMapper;
+
+    public AccountImportController(AccountImportService accountImportService, JsonMapper jsonMapper) {
+        this.accountImportService = accountImportService;
+        this.jsonMapper = jsonMapper;
+    }
+
+    // Streams the request body into the import; one JSON line per rejected
+    // row, flushed as each chunk commits, then the job summary. POST the same
+    // file to the same job id again to resume after a failure; a different
+    // file under that job id is a 400.
+    @PostMapping(value = "/{jobId}", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importCsv(@PathVariable String jobId, InputStream csv,
+                          HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ServletOutputStream out = response.getOutputStream();
+
+        AccountImportSummary summary = accountImportService.importCsv(jobId, csv, errors -> {
+            try {
+                for (AccountImportRowError error : errors)
+                    writeLine(out, error);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeLine(out, summary);
+        out.flush();
+    }
+
+    private void writeLine(ServletOutputStream out, Object value) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
+}
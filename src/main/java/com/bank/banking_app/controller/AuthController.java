@@ -3,6 +3,7 @@ package com.bank.banking_app.controller;
 import com.bank.banking_app.dto.request.LoginRequest;
 import com.bank.banking_app.dto.response.LoginResponse;
 import com.bank.banking_app.service.AuthService;
+import com.bank.banking_app.service.OperationMetrics;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,14 +14,16 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final OperationMetrics operationMetrics;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, OperationMetrics operationMetrics) {
         this.authService = authService;
+        this.operationMetrics = operationMetrics;
     }
 
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
-        return ResponseEntity.ok(authService.login(request));
+        return ResponseEntity.ok(operationMetrics.record("login", () -> authService.login(request)));
     }
 
 
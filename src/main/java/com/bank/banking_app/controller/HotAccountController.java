@@ -0,0 +1,28 @@
+package com.bank.banking_app.controller;
+
+import com.bank.banking_app.service.AccountBalanceService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Operator only (X-Operator-Token, see OperatorTokenFilter)
+@RestController
+@RequestMapping("/api/accounts/hot-slots")
+public class HotAccountController {
+
+    private final AccountBalanceService balanceService;
+
+    public HotAccountController(AccountBalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    // Turns on hot mode or adds slots; asking for fewer slots than the account has is a 400
+    @PutMapping("/{accountNumber}")
+    public ResponseEntity<String> setHotSlots(@PathVariable String accountNumber, @RequestParam int slots) {
+        balanceService.enableHotMode(accountNumber, slots);
+        return ResponseEntity.ok("Hot slots set to " + slots);
+    }
+}
@@ -1,26 +1,22 @@
 package com.bank.banking_app.controller;
 
-import com.bank.banking_app.dto.request.DepositRequest;
 import com.bank.banking_app.dto.request.PaymentVerifyRequest;
 import com.bank.banking_app.dto.response.RazorpayOrderResponse;
 import com.bank.banking_app.enums.PaymentStatus;
-import com.bank.banking_app.exception.AccountNotFoundException;
-import com.bank.banking_app.exception.InvalidCredentialsException;
-import com.bank.banking_app.models.Account;
 import com.bank.banking_app.models.Payment;
-import com.bank.banking_app.models.Users;
 import com.bank.banking_app.repository.AccountRepository;
 import com.bank.banking_app.repository.PaymentRepository;
-import com.bank.banking_app.repository.UserRepository;
-import com.bank.banking_app.service.DepositService;
+import com.bank.banking_app.security.AccountPrincipalCache;
+import com.bank.banking_app.service.OperationMetrics;
+import com.bank.banking_app.service.PaymentService;
+import com.bank.banking_app.service.PaymentWebhookService;
 import com.bank.banking_app.service.RazorpayService;
-import com.razorpay.RazorpayException;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.Locale;
 import java.util.Map;
 
 @RestController
@@ -30,82 +26,72 @@ public class PaymentController {
 
     private final RazorpayService razorpayService;
     private final PaymentRepository paymentRepository;
-    private final UserRepository userRepository;
     private final AccountRepository accountRepository;
-    private final DepositService depositService;
+    private final AccountPrincipalCache principalCache;
+    private final PaymentService paymentService;
+    private final PaymentWebhookService paymentWebhookService;
+    private final OperationMetrics operationMetrics;
 
     public PaymentController(RazorpayService razorpayService,
             PaymentRepository paymentRepository,
-            UserRepository userRepository,
             AccountRepository accountRepository,
-            DepositService depositService) {
+            AccountPrincipalCache principalCache,
+            PaymentService paymentService,
+            PaymentWebhookService paymentWebhookService,
+            OperationMetrics operationMetrics) {
         this.razorpayService = razorpayService;
         this.paymentRepository = paymentRepository;
-        this.userRepository = userRepository;
         this.accountRepository = accountRepository;
-        this.depositService = depositService;
+        this.principalCache = principalCache;
+        this.paymentService = paymentService;
+        this.paymentWebhookService = paymentWebhookService;
+        this.operationMetrics = operationMetrics;
     }
 
     @PostMapping("/create-order")
     public ResponseEntity<RazorpayOrderResponse> createOrder(@RequestBody Map<String, Object> request) {
-        try {
-            BigDecimal amount = new BigDecimal(request.get("amount").toString());
+        BigDecimal amount = new BigDecimal(request.get("amount").toString());
 
-            // Get current user's account
-            String email = SecurityContextHolder.getContext().getAuthentication().getName();
-            Users user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new InvalidCredentialsException("User not found"));
-            Account account = accountRepository.findByUser(user)
-                    .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        // Get current user's account
+        Long accountId = principalCache.current().accountId();
 
-            // Create Razorpay order
-            RazorpayOrderResponse orderResponse = razorpayService.createOrder(amount);
+        RazorpayOrderResponse orderResponse = operationMetrics.record("payment.order", () -> {
+            // Create Razorpay order; gateway failures map to 400/502/503 in GlobalExceptionHandler
+            RazorpayOrderResponse order = razorpayService.createOrder(amount);
 
             // Save payment record with CREATED status
             Payment payment = Payment.builder()
-                    .razorpayOrderId(orderResponse.getOrderId())
+                    .razorpayOrderId(order.getOrderId())
                     .amount(amount)
                     .status(PaymentStatus.CREATED)
-                    .account(account)
+                    .account(accountRepository.getReferenceById(accountId))
                     .build();
             paymentRepository.save(payment);
+            return order;
+        });
 
-            return ResponseEntity.ok(orderResponse);
-        } catch (RazorpayException e) {
-            return ResponseEntity.badRequest().build();
-        }
+        return ResponseEntity.ok(orderResponse);
     }
 
     @PostMapping("/verify")
     public ResponseEntity<String> verifyPayment(@Valid @RequestBody PaymentVerifyRequest request) {
-        // Verify signature
-        boolean isValid = razorpayService.verifySignature(
-                request.getRazorpayOrderId(),
-                request.getRazorpayPaymentId(),
-                request.getRazorpaySignature());
-
-        if (!isValid) {
-            // Update payment status to FAILED
-            paymentRepository.findByRazorpayOrderId(request.getRazorpayOrderId())
-                    .ifPresent(payment -> {
-                        payment.setStatus(PaymentStatus.FAILED);
-                        paymentRepository.save(payment);
-                    });
-            return ResponseEntity.badRequest().body("Payment verification failed");
-        }
-
-        // Update payment with success details
-        Payment payment = paymentRepository.findByRazorpayOrderId(request.getRazorpayOrderId())
-                .orElseThrow(() -> new RuntimeException("Payment not found"));
-
-        payment.setRazorpayPaymentId(request.getRazorpayPaymentId());
-        payment.setRazorpaySignature(request.getRazorpaySignature());
-        payment.setStatus(PaymentStatus.SUCCESS);
-        paymentRepository.save(payment);
-
-        // Process the deposit - add funds to account
-        depositService.deposit(new DepositRequest(payment.getAmount()));
+        PaymentService.VerifyResult result = operationMetrics.record("payment.verify",
+                () -> paymentService.verify(request), verified -> verified.name().toLowerCase(Locale.ROOT));
+        return switch (result) {
+            case CREDITED -> ResponseEntity.ok("Payment verified and deposit successful");
+            case ALREADY_CREDITED -> ResponseEntity.ok("Payment already verified");
+            case REJECTED -> ResponseEntity.badRequest().body("Payment verification failed");
+        };
+    }
 
-        return ResponseEntity.ok("Payment verified and deposit successful");
+    // Called by Razorpay, not the browser: unauthenticated, signed with the
+    // webhook secret over the raw body. Acknowledged as soon as the event is
+    // in the inbox; PaymentWebhookWorker credits the account afterwards.
+    @PostMapping("/webhook")
+    public ResponseEntity<Void> webhook(@RequestBody byte[] body,
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String signature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String eventId) {
+        paymentWebhookService.ingest(body, signature, eventId);
+        return ResponseEntity.ok().build();
     }
 }
@@ -2,6 +2,7 @@ package com.bank.banking_app.controller;
 
 import com.bank.banking_app.dto.request.DepositRequest;
 import com.bank.banking_app.service.DepositService;
+import com.bank.banking_app.service.OperationMetrics;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -13,16 +14,18 @@ import org.springframework.web.bind.annotation.*;
 public class TransactionController {
 
     private final DepositService depositService;
+    private final OperationMetrics operationMetrics;
 
-    public TransactionController(DepositService depositService) {
+    public TransactionController(DepositService depositService, OperationMetrics operationMetrics) {
         this.depositService = depositService;
+        this.operationMetrics = operationMetrics;
     }
 
     @PostMapping("/deposit")
     public ResponseEntity<String> deposit(
             @Valid @RequestBody DepositRequest request) {
 
-        depositService.deposit(request);
+        operationMetrics.record("deposit", () -> depositService.deposit(request));
         return ResponseEntity.ok("Deposit successful");
     }
 }
@@ -1,24 +1,43 @@
 package com.bank.banking_app.controller;
 
 import com.bank.banking_app.dto.response.TransactionHistoryResponse;
+import com.bank.banking_app.dto.response.TransactionHistorySliceResponse;
+import com.bank.banking_app.enums.StatementFormat;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.service.StatementExportService;
 import com.bank.banking_app.service.TransactionHistoryService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Locale;
+
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionHistoryController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final TransactionHistoryService historyService;
+    private final StatementExportService statementExportService;
 
-    public TransactionHistoryController(TransactionHistoryService historyService) {
+    public TransactionHistoryController(TransactionHistoryService historyService,
+                                        StatementExportService statementExportService) {
         this.historyService = historyService;
+        this.statementExportService = statementExportService;
     }
 
     @GetMapping
@@ -28,4 +47,39 @@ public class TransactionHistoryController {
 
         return ResponseEntity.ok(historyService.history(pageable));
     }
+
+    // Cursor-based history: pass back the nextCursor of the previous response.
+    @GetMapping("/cursor")
+    public ResponseEntity<TransactionHistorySliceResponse> historyAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        return ResponseEntity.ok(historyService.historyAfter(cursor, limit));
+    }
+
+    // Whole statement for a date range (both days included), streamed as CSV or NDJSON.
+    @GetMapping("/statement")
+    public void statement(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response) throws IOException {
+
+        StatementFormat statementFormat;
+        try {
+            statementFormat = StatementFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("format must be csv or ndjson");
+        }
+
+        try (StatementExportService.Export export = statementExportService.open(from, to, statementFormat)) {
+            boolean csv = statementFormat == StatementFormat.CSV;
+            response.setContentType(csv ? "text/csv;charset=UTF-8" : MediaType.APPLICATION_NDJSON_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("statement-" + from + "-" + to + (csv ? ".csv" : ".ndjson"))
+                    .build().toString());
+            export.writeTo(response.getOutputStream());
+        }
+    }
 }
@@ -1,29 +1,97 @@
 package com.bank.banking_app.controller;
 
 import com.bank.banking_app.dto.request.TransferRequest;
+import com.bank.banking_app.dto.response.BulkTransferSummary;
+import com.bank.banking_app.security.IdempotencyFilter;
+import com.bank.banking_app.service.BulkTransferService;
+import com.bank.banking_app.service.OperationMetrics;
 import com.bank.banking_app.service.TransferService;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/transactions")
 public class TransferController {
 
     private final TransferService transferService;
+    private final BulkTransferService bulkTransferService;
+    private final JsonMapper jsonMapper;
+    private final OperationMetrics operationMetrics;
 
-    public TransferController(TransferService transferService) {
+    public TransferController(TransferService transferService,
+                              BulkTransferService bulkTransferService,
+                              JsonMapper jsonMapper,
+                              OperationMetrics operationMetrics) {
         this.transferService = transferService;
+        this.bulkTransferService = bulkTransferService;
+        this.jsonMapper = jsonMapper;
+        this.operationMetrics = operationMetrics;
     }
 
     @PostMapping("/transfer")
     public ResponseEntity<String> transfer(
             @Valid @RequestBody TransferRequest request) {
 
-        transferService.transfer(request);
+        operationMetrics.record("transfer", () -> transferService.transfer(request));
         return ResponseEntity.ok("Transfer successful");
     }
+
+    @PostMapping(value = "/transfer/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void transferBatch(@RequestHeader(name = IdempotencyFilter.HEADER, required = false) String batchId,
+                              @RequestBody List<TransferRequest> requests,
+                              HttpServletResponse response) throws IOException {
+        streamBatch(batchId, requests, response);
+    }
+
+    @PostMapping(value = "/transfer/batch",
+            consumes = "text/csv",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void transferBatchCsv(@RequestHeader(name = IdempotencyFilter.HEADER, required = false) String batchId,
+                                 @RequestBody String csv,
+                                 HttpServletResponse response) throws IOException {
+        streamBatch(batchId, BulkTransferService.parseCsv(csv), response);
+    }
+
+    // One JSON line per batch line, flushed chunk by chunk as the chunks
+    // commit, then a summary line. Written on the request thread rather than
+    // as an async StreamingResponseBody, so a long batch is not cut off by
+    // the async request timeout. The Idempotency-Key names the batch: resubmit
+    // under the same key to resume after a dropped connection.
+    private void streamBatch(String batchId, List<TransferRequest> requests,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        ServletOutputStream out = response.getOutputStream();
+
+        BulkTransferSummary summary = bulkTransferService.transfer(batchId, requests, results -> {
+            try {
+                for (Object result : results)
+                    writeLine(out, result);
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writeLine(out, summary);
+        out.flush();
+    }
+
+    private void writeLine(ServletOutputStream out, Object value) throws IOException {
+        out.write(jsonMapper.writeValueAsBytes(value));
+        out.write('\n');
+    }
 }
@@ -1,6 +1,7 @@
 package com.bank.banking_app.controller;
 
 import com.bank.banking_app.dto.request.WithDrawRequest;
+import com.bank.banking_app.service.OperationMetrics;
 import com.bank.banking_app.service.WithDrawService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -14,16 +15,18 @@ import org.springframework.web.bind.annotation.RestController;
 public class WithDrawController {
 
     private final WithDrawService withdrawService;
+    private final OperationMetrics operationMetrics;
 
-    public WithDrawController(WithDrawService withdrawService) {
+    public WithDrawController(WithDrawService withdrawService, OperationMetrics operationMetrics) {
         this.withdrawService = withdrawService;
+        this.operationMetrics = operationMetrics;
     }
 
     @PostMapping("/withdraw")
     public ResponseEntity<String> withdraw(
             @Valid @RequestBody WithDrawRequest request) {
 
-        withdrawService.withDraw(request);
+        operationMetrics.record("withdraw", () -> withdrawService.withDraw(request));
         return ResponseEntity.ok("Withdrawal successful");
     }
 }
@@ -0,0 +1,40 @@
+package com.bank.banking_app.dto.request;
+
+import com.bank.banking_app.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque position in an account's transaction history: the (createdAt, id)
+ * of the last row a client has already seen, base64url-encoded.
+ */
+public record HistoryCursor(LocalDateTime createdAt, Long id) {
+
+    // created_at is stored with microsecond precision; a freshly persisted
+    // entity may still carry nanoseconds and would otherwise seek past itself.
+    public HistoryCursor {
+        createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new HistoryCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
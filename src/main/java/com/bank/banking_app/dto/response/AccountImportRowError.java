@@ -0,0 +1,18 @@
+package com.bank.banking_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImportRowError {
+
+    // 1-based line in the file, the header being line 1
+    private long line;
+    private String email;
+    private String error;
+}
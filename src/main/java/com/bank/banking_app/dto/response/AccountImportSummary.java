@@ -0,0 +1,22 @@
+package com.bank.banking_app.dto.response;
+
+import com.bank.banking_app.enums.AccountImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountImportSummary {
+
+    private String jobId;
+    private AccountImportStatus status;
+    // Last line committed; everything up to it is done
+    private long checkpointLine;
+    // Totals over every run of the job, not just this one
+    private long imported;
+    private long rejected;
+}
@@ -0,0 +1,23 @@
+package com.bank.banking_app.dto.response;
+
+import com.bank.banking_app.enums.BulkTransferLineStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferLineResult {
+
+    // 1-based position in the submitted batch
+    private int line;
+    private String receiverAccountNumber;
+    private BigDecimal amount;
+    private BulkTransferLineStatus status;
+    private String error;
+}
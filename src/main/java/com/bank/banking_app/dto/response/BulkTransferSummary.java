@@ -0,0 +1,25 @@
+package com.bank.banking_app.dto.response;
+
+import com.bank.banking_app.enums.BulkTransferBatchStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransferSummary {
+
+    private String batchId;
+    private BulkTransferBatchStatus status;
+    private int lines;
+    // Totals over every submission of the batch, not just this one
+    private int succeeded;
+    private int rejected;
+    private int failed;
+    private BigDecimal totalDebited;
+}
@@ -0,0 +1,19 @@
+package com.bank.banking_app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionHistorySliceResponse {
+
+    private List<TransactionHistoryResponse> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,7 @@
+package com.bank.banking_app.enums;
+
+public enum AccountImportStatus {
+    // Running, or stopped part way: re-running the job resumes it
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,7 @@
+package com.bank.banking_app.enums;
+
+public enum BulkTransferBatchStatus {
+    // Running, or stopped part way: resubmitting the batch resumes it
+    IN_PROGRESS,
+    COMPLETED
+}
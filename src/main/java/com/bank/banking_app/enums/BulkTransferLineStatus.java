@@ -0,0 +1,9 @@
+package com.bank.banking_app.enums;
+
+public enum BulkTransferLineStatus {
+    SUCCESS,
+    // Invalid line or receiver; never attempted
+    REJECTED,
+    // Attempted, but its chunk was rolled back or the batch stopped
+    FAILED
+}
@@ -0,0 +1,6 @@
+package com.bank.banking_app.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,9 @@
+package com.bank.banking_app.enums;
+
+// Which book a ledger entry belongs to. CUSTOMER entries carry an account id;
+// the others are the outside-world side of deposits, withdrawals and payments.
+public enum LedgerBook {
+    CUSTOMER,
+    CASH,
+    PAYMENT_GATEWAY
+}
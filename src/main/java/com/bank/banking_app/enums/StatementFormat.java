@@ -0,0 +1,6 @@
+package com.bank.banking_app.enums;
+
+public enum StatementFormat {
+    CSV,
+    NDJSON
+}
@@ -3,5 +3,7 @@ package com.bank.banking_app.enums;
 public enum TransactionType {
     DEPOSIT,
     WITHDRAW,
-    TRANSFER
+    TRANSFER,
+    // Ledger only: a hot account's slots moved into its accounts row
+    SWEEP
 }
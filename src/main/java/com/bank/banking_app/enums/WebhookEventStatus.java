@@ -0,0 +1,8 @@
+package com.bank.banking_app.enums;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    FAILED
+}
@@ -1,5 +1,7 @@
 package com.bank.banking_app.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -9,6 +11,21 @@ import java.util.Map;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler{
+    private final Counter insufficientBalance;
+    private final Counter accountNotActive;
+
+    public GlobalExceptionHandler(MeterRegistry registry){
+        this.insufficientBalance = exceptionCounter(registry, InsufficientBalanceException.class);
+        this.accountNotActive = exceptionCounter(registry, AccountNotActiveException.class);
+    }
+
+    private static Counter exceptionCounter(MeterRegistry registry, Class<? extends Exception> type){
+        return Counter.builder("banking.exceptions")
+                .description("Business rule rejections answered by GlobalExceptionHandler")
+                .tag("exception", type.getSimpleName())
+                .register(registry);
+    }
+
     @ExceptionHandler(DuplicateResourceException.class)
     public ResponseEntity<Map<String,String>> handleDuplicate(DuplicateResourceException ex){
         return ResponseEntity.status(HttpStatus.CONFLICT)
@@ -27,9 +44,31 @@ public class GlobalExceptionHandler{
     }
     @ExceptionHandler(AccountNotActiveException.class)
     public ResponseEntity<Map<String,String>> handleAccountNotActive(AccountNotActiveException ex){
+        accountNotActive.increment();
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
                 .body(Map.of("error",ex.getMessage()));
     }
+    @ExceptionHandler(InsufficientBalanceException.class)
+    public ResponseEntity<Map<String,String>> handleInsufficientBalance(InsufficientBalanceException ex){
+        insufficientBalance.increment();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error",ex.getMessage()));
+    }
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String,String>> handleBadRequest(BadRequestException ex){
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error",ex.getMessage()));
+    }
+    @ExceptionHandler(PaymentGatewayException.class)
+    public ResponseEntity<Map<String,String>> handlePaymentGateway(PaymentGatewayException ex){
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .body(Map.of("error",ex.getMessage()));
+    }
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String,String>> handleServiceUnavailable(ServiceUnavailableException ex){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error",ex.getMessage()));
+    }
     @ExceptionHandler(Exception.class)
  public ResponseEntity<Map<String,String>> handleGeneric(Exception ex){
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,7 @@
+package com.bank.banking_app.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
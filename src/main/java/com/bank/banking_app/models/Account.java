@@ -2,6 +2,7 @@ package com.bank.banking_app.models;
 
 import com.bank.banking_app.enums.AccountType;
 import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.security.AccountPrincipalInvalidator;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,13 +16,17 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Data
-@Table(name = "accounts")
-
+@Table(name = "accounts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_accounts_account_number", columnNames = "account_number")
+})
+@EntityListeners(AccountPrincipalInvalidator.class)
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_id_gen")
+    @TableGenerator(name = "account_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "accounts", allocationSize = 50)
     private Long id;
-    @Column(nullable = false, unique = true, updatable = false)
+    @Column(nullable = false, updatable = false)
     private String accountNumber;
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -29,6 +34,12 @@ public class Account {
 
     @Column(nullable = false, precision = 19, scale = 2)
     private BigDecimal balance;
+    // seq of the last ledger entry applied to balance; only the balance UPDATEs move it
+    @Column(nullable = false)
+    private long ledgerSeq;
+    // 0 for a normal account; N > 0 spreads credits over N rows of account_balance_slots
+    @Column(nullable = false)
+    private int hotSlots;
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private KycStatus.AccountStatus status;
@@ -0,0 +1,46 @@
+package com.bank.banking_app.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * One sub-balance of a hot account. Credits to the account land on a random
+ * slot, so concurrent credits lock different rows; the account's balance is
+ * accounts.balance plus all its slots. ledgerSeq numbers the slot's own
+ * ledger entries, as Account.ledgerSeq does for the accounts row.
+ */
+@Entity
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_balance_slots")
+@IdClass(AccountBalanceSlot.Key.class)
+public class AccountBalanceSlot {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private int slot;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private long ledgerSeq;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private int slot;
+    }
+}
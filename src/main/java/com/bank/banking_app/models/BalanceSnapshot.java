@@ -0,0 +1,49 @@
+package com.bank.banking_app.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The balance of one of an account's slots after its ledger entries 1..seq.
+ * Slot 0 is the accounts row; hot accounts also have slots 1..N. Rebuilding
+ * a balance only has to add the entries after seq.
+ */
+@Entity
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_balance_snapshots")
+@IdClass(BalanceSnapshot.Key.class)
+public class BalanceSnapshot {
+
+    @Id
+    private Long accountId;
+
+    @Id
+    private int slot;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private long seq;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long accountId;
+        private int slot;
+    }
+}
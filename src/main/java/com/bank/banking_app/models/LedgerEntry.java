@@ -0,0 +1,70 @@
+package com.bank.banking_app.models;
+
+import com.bank.banking_app.enums.LedgerBook;
+import com.bank.banking_app.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a journal in the append-only ledger. The entries of a journal
+ * sum to zero. Amounts are signed from the book's point of view: positive
+ * raises a customer balance. seq numbers the entries of one slot of a
+ * customer account 1, 2, 3... in commit order (see Account.ledgerSeq and
+ * AccountBalanceSlot); external books have none.
+ */
+@Entity
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "ledger_entries", indexes = {
+        @Index(name = "idx_ledger_entries_journal", columnList = "journal_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ledger_entries_account_slot_seq", columnNames = {"account_id", "slot", "seq"})
+})
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ledger_entry_id_gen")
+    @TableGenerator(name = "ledger_entry_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "ledger_entries", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false, length = 36)
+    private String journalId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TransactionType entryType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private LedgerBook book;
+
+    @Column(updatable = false)
+    private Long accountId;
+
+    // 0 for the accounts row, 1..N for a hot account's slots
+    @Column(nullable = false, updatable = false)
+    private int slot;
+
+    @Column(updatable = false)
+    private Long seq;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
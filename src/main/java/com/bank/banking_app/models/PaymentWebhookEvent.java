@@ -0,0 +1,66 @@
+package com.bank.banking_app.models;
+
+import com.bank.banking_app.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A verified Razorpay webhook waiting in the local inbox. The endpoint only
+ * appends rows; PaymentWebhookWorker claims PENDING rows and applies them to
+ * Payment and Account.
+ */
+@Entity
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "payment_webhook_events", indexes = {
+        @Index(name = "idx_payment_webhook_events_status", columnList = "status, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payment_webhook_events_event_id", columnNames = "event_id")
+})
+public class PaymentWebhookEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payment_webhook_event_id_gen")
+    @TableGenerator(name = "payment_webhook_event_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "payment_webhook_events", allocationSize = 50)
+    private Long id;
+
+    // X-Razorpay-Event-Id: Razorpay redelivers an event with the same id
+    @Column(nullable = false, length = 64)
+    private String eventId;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 8000)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WebhookEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    void onCreate() {
+        this.receivedAt = LocalDateTime.now();
+    }
+}
@@ -13,7 +13,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_account_created", columnList = "account_id, created_at, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transactions_transaction_id", columnNames = "transaction_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,10 +25,12 @@ import java.util.UUID;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id_gen")
+    @TableGenerator(name = "transaction_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "transactions", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false,unique = true,updatable = false)
+    @Column(nullable = false,updatable = false)
     private String transactionId;
 
     @Enumerated(EnumType.STRING)
@@ -14,23 +14,30 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_users_phone", columnNames = "phone"),
+        @UniqueConstraint(name = "uk_users_aadhaar_number", columnNames = "aadhaar_number"),
+        @UniqueConstraint(name = "uk_users_pan_card_number", columnNames = "pan_card_number")
+})
 public class Users {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id_gen")
+    @TableGenerator(name = "user_id_gen", table = "id_generators", pkColumnName = "gen_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String fullName;
 
-    @Column(nullable = false,unique = true)
+    @Column(nullable = false)
     private String email;
-    @Column(nullable = false,unique = true)
+    @Column(nullable = false)
     private String phone;
     @Column(nullable = false)
     private String password;
-    @Column(nullable = false,unique = true,length = 12)
+    @Column(nullable = false,length = 12)
     private String aadhaarNumber;
-    @Column(nullable = false,unique = true,length = 10)
+    @Column(nullable = false,length = 10)
     private String panCardNumber;
 
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,36 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.models.AccountBalanceSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, AccountBalanceSlot.Key> {
+
+    List<AccountBalanceSlot> findByAccountId(Long accountId);
+
+    // Locks only the one slot row; also takes the slot's next ledger seq.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update AccountBalanceSlot s set s.balance = s.balance + :amount, s.ledgerSeq = s.ledgerSeq + 1 " +
+            "where s.accountId = :accountId and s.slot = :slot")
+    int credit(@Param("accountId") Long accountId, @Param("slot") int slot, @Param("amount") BigDecimal amount);
+
+    @Query("select new com.bank.banking_app.repository.BalancePosition(s.balance, s.ledgerSeq) " +
+            "from AccountBalanceSlot s where s.accountId = :accountId and s.slot = :slot")
+    Optional<BalancePosition> findPosition(@Param("accountId") Long accountId, @Param("slot") int slot);
+
+    @Query("select coalesce(sum(s.balance), 0) from AccountBalanceSlot s where s.accountId = :accountId")
+    BigDecimal sumBalance(@Param("accountId") Long accountId);
+
+    // Slots to sweep into the accounts row, locked in slot order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceSlot s where s.accountId = :accountId and s.balance > 0 order by s.slot")
+    List<AccountBalanceSlot> findNonEmptyForUpdate(@Param("accountId") Long accountId);
+}
@@ -0,0 +1,7 @@
+package com.bank.banking_app.repository;
+
+import java.math.BigDecimal;
+
+// BalancePosition of one of several accounts read together.
+public record AccountPosition(Long accountId, BigDecimal balance, long seq) {
+}
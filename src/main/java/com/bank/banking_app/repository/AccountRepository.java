@@ -1,9 +1,17 @@
 package com.bank.banking_app.repository;
 
+import com.bank.banking_app.enums.KycStatus;
 import com.bank.banking_app.models.Account;
 import com.bank.banking_app.models.Users;
+import com.bank.banking_app.security.AccountPrincipal;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -14,4 +22,60 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByUser(Users user);
 
-}
\ No newline at end of file
+    @Query("select new com.bank.banking_app.security.AccountPrincipal(u.id, a.id, a.accountNumber, a.status, u.email) " +
+            "from Account a join a.user u where u.email = :email")
+    Optional<AccountPrincipal> findPrincipalByEmail(@Param("email") String email);
+
+    @Query("select new com.bank.banking_app.repository.ProfileView(u.fullName, u.email, u.phone, u.kycStatus, " +
+            "a.accountNumber, a.accountType, a.balance, a.status) from Account a join a.user u where a.id = :id")
+    Optional<ProfileView> findProfileById(@Param("id") Long id);
+
+    @Query("select a.id from Account a where a.accountNumber = :accountNumber")
+    Optional<Long> findIdByAccountNumber(@Param("accountNumber") String accountNumber);
+
+    @Query("select new com.bank.banking_app.repository.TransferTarget(a.id, a.accountNumber, a.status) " +
+            "from Account a where a.accountNumber in :accountNumbers")
+    List<TransferTarget> findTransferTargets(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    boolean existsByIdAndStatus(Long id, KycStatus.AccountStatus status);
+
+    @Query("select a.hotSlots from Account a where a.id = :id")
+    Optional<Integer> findHotSlotsById(@Param("id") Long id);
+
+    @Query("select a.balance from Account a where a.id = :id")
+    Optional<BigDecimal> findBalanceById(@Param("id") Long id);
+
+    @Query("select new com.bank.banking_app.repository.BalancePosition(a.balance, a.ledgerSeq) " +
+            "from Account a where a.id = :id")
+    Optional<BalancePosition> findPositionById(@Param("id") Long id);
+
+    @Query("select new com.bank.banking_app.repository.AccountPosition(a.id, a.balance, a.ledgerSeq) " +
+            "from Account a where a.id in :ids")
+    List<AccountPosition> findPositionsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Single-statement balance mutations: the check and the write happen in the
+    // same UPDATE, so no row is read into Java and written back. They return the
+    // number of rows changed; 0 means the account is missing, not ACTIVE or (for
+    // debits) short of funds. Callers touching two accounts in one transaction
+    // must apply them in ascending id order so A->B / B->A never deadlock.
+    // Each also takes the next ledger seq for the entry the caller must post.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.ledgerSeq = a.ledgerSeq + 1 " +
+            "where a.id = :id and a.balance >= :amount " +
+            "and a.status = com.bank.banking_app.enums.KycStatus.AccountStatus.ACTIVE")
+    int debitIfActive(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, a.ledgerSeq = a.ledgerSeq + 1 " +
+            "where a.id = :id " +
+            "and a.status = com.bank.banking_app.enums.KycStatus.AccountStatus.ACTIVE")
+    int creditIfActive(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    // debitIfActive for the sum of several entries, taking a seq for each.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, a.ledgerSeq = a.ledgerSeq + :entries " +
+            "where a.id = :id and a.balance >= :amount " +
+            "and a.status = com.bank.banking_app.enums.KycStatus.AccountStatus.ACTIVE")
+    int debitManyIfActive(@Param("id") Long id, @Param("amount") BigDecimal amount, @Param("entries") int entries);
+
+}
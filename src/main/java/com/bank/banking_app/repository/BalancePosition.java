@@ -0,0 +1,7 @@
+package com.bank.banking_app.repository;
+
+import java.math.BigDecimal;
+
+// An account's balance together with the seq of the ledger entry that produced it.
+public record BalancePosition(BigDecimal balance, long seq) {
+}
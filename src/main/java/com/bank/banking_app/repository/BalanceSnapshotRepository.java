@@ -0,0 +1,28 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.models.BalanceSnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, BalanceSnapshot.Key> {
+
+    List<BalanceSnapshot> findByAccountId(Long accountId);
+
+    // Accounts after afterId whose own row has at least minEntries ledger
+    // entries since its last snapshot
+    @Query("select a.id from Account a left join BalanceSnapshot s on s.accountId = a.id and s.slot = 0 " +
+            "where a.id > :afterId and a.ledgerSeq - coalesce(s.seq, 0) >= :minEntries order by a.id")
+    List<Long> findAccountsDueForSnapshot(@Param("afterId") long afterId, @Param("minEntries") long minEntries,
+                                          Limit limit);
+
+    // Same for hot accounts' slots
+    @Query("select distinct b.accountId from AccountBalanceSlot b left join BalanceSnapshot s " +
+            "on s.accountId = b.accountId and s.slot = b.slot " +
+            "where b.accountId > :afterId and b.ledgerSeq - coalesce(s.seq, 0) >= :minEntries order by b.accountId")
+    List<Long> findSlottedAccountsDueForSnapshot(@Param("afterId") long afterId, @Param("minEntries") long minEntries,
+                                                 Limit limit);
+}
@@ -0,0 +1,32 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.enums.IdempotencyStatus;
+import com.bank.banking_app.models.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.responseStatus = :responseStatus, " +
+            "r.responseContentType = :contentType, r.responseBody = :body " +
+            "where r.userId = :userId and r.idempotencyKey = :key")
+    int complete(@Param("userId") Long userId, @Param("key") String key,
+                 @Param("status") IdempotencyStatus status, @Param("responseStatus") int responseStatus,
+                 @Param("contentType") String contentType, @Param("body") String body);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.userId = :userId and r.idempotencyKey = :key")
+    int deleteByUserIdAndIdempotencyKey(@Param("userId") Long userId, @Param("key") String key);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,20 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.models.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByJournalId(String journalId);
+
+    // Sum and last seq of a slot's entries after a snapshot. Entries for one
+    // slot commit in seq order, so what is visible is always 1..n.
+    @Query("select new com.bank.banking_app.repository.BalancePosition(coalesce(sum(e.amount), 0), coalesce(max(e.seq), :afterSeq)) " +
+            "from LedgerEntry e where e.accountId = :accountId and e.slot = :slot and e.seq > :afterSeq")
+    BalancePosition sumAfter(@Param("accountId") Long accountId, @Param("slot") int slot,
+                             @Param("afterSeq") long afterSeq);
+}
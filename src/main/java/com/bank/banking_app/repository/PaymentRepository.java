@@ -2,6 +2,9 @@ package com.bank.banking_app.repository;
 
 import com.bank.banking_app.models.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,16 @@ import java.util.Optional;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByRazorpayOrderId(String razorpayOrderId);
+
+    // Compare-and-set transitions: of any number of concurrent callers exactly
+    // one gets 1 back, and only that one may act on the payment. A FAILED
+    // order can still succeed, since Razorpay may capture a later attempt.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Payment p set p.status = com.bank.banking_app.enums.PaymentStatus.SUCCESS, " +
+            "p.razorpayPaymentId = :paymentId, p.razorpaySignature = :signature " +
+            "where p.razorpayOrderId = :orderId " +
+            "and p.status <> com.bank.banking_app.enums.PaymentStatus.SUCCESS")
+    int markSucceeded(@Param("orderId") String orderId,
+                      @Param("paymentId") String paymentId,
+                      @Param("signature") String signature);
 }
@@ -0,0 +1,44 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.enums.WebhookEventStatus;
+import com.bank.banking_app.models.PaymentWebhookEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, Long> {
+
+    boolean existsByEventId(String eventId);
+
+    @Query("select e.id from PaymentWebhookEvent e where e.status = :status order by e.id")
+    List<Long> findIdsByStatus(@Param("status") WebhookEventStatus status, Limit limit);
+
+    // Claim for one worker: only the caller that gets 1 back processes the event.
+    @Modifying
+    @Query("update PaymentWebhookEvent e set e.status = com.bank.banking_app.enums.WebhookEventStatus.PROCESSING, " +
+            "e.claimedAt = :now, e.attempts = e.attempts + 1 " +
+            "where e.id = :id and e.status = com.bank.banking_app.enums.WebhookEventStatus.PENDING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update PaymentWebhookEvent e set e.status = :status, e.lastError = :error, e.processedAt = :processedAt " +
+            "where e.id = :id")
+    int finish(@Param("id") Long id, @Param("status") WebhookEventStatus status,
+               @Param("error") String error, @Param("processedAt") LocalDateTime processedAt);
+
+    // Hands back events whose worker died mid-way; applying one twice is safe.
+    @Modifying
+    @Query("update PaymentWebhookEvent e set e.status = com.bank.banking_app.enums.WebhookEventStatus.PENDING " +
+            "where e.status = com.bank.banking_app.enums.WebhookEventStatus.PROCESSING and e.claimedAt < :before")
+    int requeueStale(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("delete from PaymentWebhookEvent e " +
+            "where e.status = com.bank.banking_app.enums.WebhookEventStatus.PROCESSED and e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,17 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+
+import java.math.BigDecimal;
+
+// The user and account columns behind MeResponse.
+public record ProfileView(String fullName,
+                          String email,
+                          String phone,
+                          KycStatus kycStatus,
+                          String accountNumber,
+                          AccountType accountType,
+                          BigDecimal balance,
+                          KycStatus.AccountStatus status) {
+}
@@ -0,0 +1,18 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.enums.TransactionStatus;
+import com.bank.banking_app.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The columns the history endpoints return, plus id for the paging cursor.
+public record TransactionHistoryRow(Long id,
+                                    String transactionId,
+                                    TransactionType transactionType,
+                                    BigDecimal amount,
+                                    BigDecimal balanceBefore,
+                                    BigDecimal balanceAfter,
+                                    TransactionStatus status,
+                                    LocalDateTime createdAt) {
+}
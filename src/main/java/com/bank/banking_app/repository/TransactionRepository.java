@@ -5,8 +5,12 @@ import com.bank.banking_app.models.Transaction;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -16,4 +20,28 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByAccountOrderByCreatedAtDesc(Account account);
 
     Page<Transaction> findByAccount(Account account, Pageable pageable);
+
+    // History reads select only the returned columns into TransactionHistoryRow:
+    // no entities, Account proxies or dirty-checking snapshots.
+    String HISTORY_ROW = "select new com.bank.banking_app.repository.TransactionHistoryRow(" +
+            "t.id, t.transactionId, t.transactionType, t.amount, t.balanceBefore, t.balanceAfter, " +
+            "t.status, t.createdAt) from Transaction t where t.account.id = :accountId ";
+
+    @Query(value = HISTORY_ROW,
+            countQuery = "select count(t) from Transaction t where t.account.id = :accountId")
+    Page<TransactionHistoryRow> findHistoryPage(@Param("accountId") Long accountId, Pageable pageable);
+
+    // Keyset paging over idx_transactions_account_created: each page seeks
+    // straight past the last (createdAt, id) it returned, and a Slice fetches
+    // one extra row instead of running COUNT(*).
+    @Query(HISTORY_ROW + "order by t.createdAt desc, t.id desc")
+    Slice<TransactionHistoryRow> findHistorySlice(@Param("accountId") Long accountId, Pageable pageable);
+
+    @Query(HISTORY_ROW +
+            "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) " +
+            "order by t.createdAt desc, t.id desc")
+    Slice<TransactionHistoryRow> findSliceAfter(@Param("accountId") Long accountId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
 }
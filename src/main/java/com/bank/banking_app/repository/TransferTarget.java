@@ -0,0 +1,7 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.enums.KycStatus;
+
+// What a bulk transfer needs to know about a receiver before moving money.
+public record TransferTarget(Long accountId, String accountNumber, KycStatus.AccountStatus status) {
+}
@@ -2,21 +2,47 @@ package com.bank.banking_app.repository;
 
 import com.bank.banking_app.models.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<Users, Long> {
-    boolean existsByEmail(String email);
+    // Which of a new customer's identifiers are already taken, in one round
+    // trip: one unique-index lookup per branch ("email", "phone", "aadhaar", "pan").
+    @Query("select 'email' from Users u where u.email = :email " +
+            "union all select 'phone' from Users u where u.phone = :phone " +
+            "union all select 'aadhaar' from Users u where u.aadhaarNumber = :aadhaarNumber " +
+            "union all select 'pan' from Users u where u.panCardNumber = :panCardNumber")
+    List<String> findTakenIdentifiers(@Param("email") String email, @Param("phone") String phone,
+                                      @Param("aadhaarNumber") String aadhaarNumber,
+                                      @Param("panCardNumber") String panCardNumber);
 
-    boolean existsByPhone(String phone);
+    Optional<Users> findByEmail(String email);
 
-    boolean existsByAadhaarNumber(String aadhaarNumber);
+    Optional<Users> findByPhone(String phone);
 
-    boolean existsByPanCardNumber(String panCardNumber);
+    // The same check for a bulk import chunk: which of these are already taken
+    @Query("select u.email from Users u where u.email in :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
 
-    Optional<Users> findByEmail(String email);
+    @Query("select u.phone from Users u where u.phone in :phones")
+    List<String> findPhonesIn(@Param("phones") Collection<String> phones);
 
-    Optional<Users> findByPhone(String phone);
+    @Query("select u.aadhaarNumber from Users u where u.aadhaarNumber in :aadhaarNumbers")
+    List<String> findAadhaarNumbersIn(@Param("aadhaarNumbers") Collection<String> aadhaarNumbers);
+
+    @Query("select u.panCardNumber from Users u where u.panCardNumber in :panCardNumbers")
+    List<String> findPanCardNumbersIn(@Param("panCardNumbers") Collection<String> panCardNumbers);
+
+    // Compare-and-set, so a rehash racing a password change never overwrites it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Users u set u.password = :newPassword where u.id = :id and u.password = :oldPassword")
+    int replacePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
 }
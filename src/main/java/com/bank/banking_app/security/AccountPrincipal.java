@@ -0,0 +1,22 @@
+package com.bank.banking_app.security;
+
+import com.bank.banking_app.enums.KycStatus;
+
+import java.security.Principal;
+
+/**
+ * What an authenticated request needs to know about its caller, resolved once
+ * from the JWT subject and kept in the SecurityContext. getName() stays the
+ * email so Authentication.getName() keeps its old meaning.
+ */
+public record AccountPrincipal(Long userId,
+                               Long accountId,
+                               String accountNumber,
+                               KycStatus.AccountStatus status,
+                               String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
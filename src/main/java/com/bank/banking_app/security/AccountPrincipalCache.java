@@ -0,0 +1,86 @@
+package com.bank.banking_app.security;
+
+import com.bank.banking_app.exception.InvalidCredentialsException;
+import com.bank.banking_app.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded, TTL-evicting email -> AccountPrincipal cache, so the request path
+ * does not run the users/accounts identity lookup on every call. Entries are
+ * dropped by AccountPrincipalInvalidator whenever an Account row changes,
+ * found through an accountId -> email index rather than a scan.
+ */
+@Component
+public class AccountPrincipalCache {
+
+    private final AccountRepository accountRepository;
+    private final Cache<String, AccountPrincipal> principals;
+    private final Map<Long, String> emailsByAccount = new ConcurrentHashMap<>();
+
+    public AccountPrincipalCache(AccountRepository accountRepository,
+                                 @Value("${banking.principal-cache.maximum-size:100000}") long maximumSize,
+                                 @Value("${banking.principal-cache.ttl:5m}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                // Runs with the eviction, so it cannot undo a later put of the same key
+                .evictionListener((String email, AccountPrincipal principal, RemovalCause cause) ->
+                        emailsByAccount.remove(principal.accountId(), email))
+                .build();
+    }
+
+    public Optional<AccountPrincipal> get(String email) {
+        AccountPrincipal cached = principals.getIfPresent(email);
+        if (cached != null)
+            return Optional.of(cached);
+
+        Optional<AccountPrincipal> loaded = accountRepository.findPrincipalByEmail(email);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(AccountPrincipal principal) {
+        principals.put(principal.email(), principal);
+        // One cached email per account: an owner change drops the old one
+        String previous = emailsByAccount.put(principal.accountId(), principal.email());
+        if (previous != null && !previous.equals(principal.email()))
+            principals.invalidate(previous);
+    }
+
+    /**
+     * The caller of the current request. Falls back to a cache lookup when the
+     * SecurityContext holds a bare email (e.g. set up by tests).
+     */
+    public AccountPrincipal current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication.getPrincipal() instanceof AccountPrincipal principal)
+            return principal;
+
+        return get(authentication.getName())
+                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
+    }
+
+    public void invalidate(String email) {
+        AccountPrincipal removed = principals.asMap().remove(email);
+        if (removed != null)
+            emailsByAccount.remove(removed.accountId(), email);
+    }
+
+    public void invalidateAccount(Long accountId) {
+        String email = emailsByAccount.remove(accountId);
+        if (email != null)
+            principals.invalidate(email);
+    }
+}
@@ -0,0 +1,39 @@
+package com.bank.banking_app.security;
+
+import com.bank.banking_app.models.Account;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on Account that keeps AccountPrincipalCache honest: status or
+ * ownership changes and deletes evict the cached principal. Balance moves go
+ * through bulk UPDATEs, which bypass listeners and do not touch the principal.
+ */
+@Component
+public class AccountPrincipalInvalidator {
+
+    // Resolved lazily: the cache needs AccountRepository, which needs the
+    // EntityManagerFactory that is busy instantiating this listener.
+    private final ObjectProvider<AccountPrincipalCache> principalCache;
+
+    public AccountPrincipalInvalidator(ObjectProvider<AccountPrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    // On persist rather than post-persist: inserts are deferred to flush, and a
+    // lookup in the same transaction must not be served a stale entry first.
+    @PrePersist
+    void onPersist(Account account) {
+        if (account.getUser() != null)
+            principalCache.getObject().invalidate(account.getUser().getEmail());
+    }
+
+    @PostUpdate
+    @PostRemove
+    void onChange(Account account) {
+        principalCache.getObject().invalidateAccount(account.getId());
+    }
+}
@@ -0,0 +1,159 @@
+package com.bank.banking_app.security;
+
+import com.bank.banking_app.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a CPU-heavy encoder (BCrypt) on a small fixed pool of platform threads.
+ * <p>
+ * Request threads are virtual: a hash done in place would occupy a carrier
+ * for its full ~100 ms, so a login burst would starve every other request.
+ * Here the caller parks until a worker is done, at most {@code threads}
+ * hashes run at once, at most {@code queueCapacity} wait, and anything past
+ * that is rejected straight away with a 503 rather than queueing without
+ * bound. Hash time, queue depth and rejections are published as metrics.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final long BATCH_BACK_OFF_MILLIS = 20;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry registry) {
+        this.delegate = delegate;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("banking.password.hash")
+                .description("Time spent hashing on a worker, excluding queueing")
+                .tag("operation", "encode")
+                .register(registry);
+        this.matchesTimer = Timer.builder("banking.password.hash")
+                .description("Time spent hashing on a worker, excluding queueing")
+                .tag("operation", "matches")
+                .register(registry);
+        this.rejected = Counter.builder("banking.password.hash.rejected")
+                .description("Hashes refused because the queue was full")
+                .register(registry);
+        Gauge.builder("banking.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hashes waiting for a worker")
+                .register(registry);
+        Gauge.builder("banking.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hashes running")
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hashes a batch (bulk imports) in parallel over the same pool. At most
+     * one batch task per worker is outstanding, so interactive hashes queue
+     * behind a handful of batch hashes rather than the whole batch, and a
+     * full queue makes the batch wait instead of failing it.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        Semaphore window = new Semaphore(executor.getMaximumPoolSize());
+        List<Future<String>> results = new ArrayList<>(rawPasswords.size());
+        try {
+            for (CharSequence rawPassword : rawPasswords) {
+                window.acquire();
+                results.add(submitWhenAccepted(() -> {
+                    try {
+                        return encodeTimer.recordCallable(() -> delegate.encode(rawPassword));
+                    } finally {
+                        window.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            results.forEach(result -> result.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        }
+        List<String> hashes = new ArrayList<>(results.size());
+        for (Future<String> result : results)
+            hashes.add(await(result));
+        return hashes;
+    }
+
+    // Cheap: only parses the cost out of the stored hash
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Callable<T> hash) {
+        Future<T> result;
+        try {
+            result = executor.submit(() -> timer.recordCallable(hash));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many sign-ins in progress, try again shortly");
+        }
+        return await(result);
+    }
+
+    private <T> Future<T> submitWhenAccepted(Callable<T> task) throws InterruptedException {
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown())
+                    throw e;
+                Thread.sleep(BATCH_BACK_OFF_MILLIS);
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime)
+                throw runtime;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,221 @@
+package com.bank.banking_app.security;
+
+import com.bank.banking_app.service.IdempotencyService;
+import com.bank.banking_app.service.IdempotencyService.Outcome;
+import com.bank.banking_app.service.IdempotencyService.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Makes the money-moving POSTs safe to retry. A request carrying an
+ * Idempotency-Key header runs at most once per user and key; retries get the
+ * stored status and body back (marked Idempotent-Replayed) without reaching
+ * the controller. Runs after JwtAuthenticationFilter so keys are scoped to
+ * the authenticated user. Requests without the header are untouched.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    // Matches idempotency_keys.response_body; larger bodies are not stored
+    private static final int MAX_STORED_BODY = 4000;
+
+    private static final Set<String> GUARDED_PATHS = Set.of(
+            "/api/transactions/deposit",
+            "/api/transactions/withdraw",
+            "/api/transactions/transfer",
+            "/api/payments/verify");
+
+    private final IdempotencyService idempotencyService;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod()) || !GUARDED_PATHS.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (key == null || key.isBlank()
+                || authentication == null || !(authentication.getPrincipal() instanceof AccountPrincipal principal)) {
+            // Unauthenticated requests are rejected further down the chain.
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = hash(request, cachedRequest.body);
+        Long userId = principal.userId();
+
+        Outcome outcome = idempotencyService.begin(userId, key, requestHash);
+        switch (outcome.decision()) {
+            case REPLAY -> replay(response, outcome.response());
+            case IN_PROGRESS -> writeError(response, HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still being processed");
+            case MISMATCH -> writeError(response, HttpStatus.UNPROCESSABLE_CONTENT,
+                    HEADER + " was already used for a different request");
+            case PROCEED -> proceed(cachedRequest, response, filterChain, userId, key, requestHash);
+        }
+    }
+
+    private void proceed(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                         Long userId, String key, String requestHash) throws ServletException, IOException {
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, cachingResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            // Escaped the handlers, so the service's transaction rolled back
+            idempotencyService.release(userId, key);
+            throw e;
+        }
+
+        try {
+            if (cachingResponse.getStatus() >= 500) {
+                // A 5xx is an exception out of the service, which rolled it
+                // back: not a final answer, and the retry should run it again.
+                idempotencyService.release(userId, key);
+            } else {
+                // 2xx and 4xx are final. A body too large to keep is replayed
+                // as its status alone; the claim must still be completed.
+                byte[] body = cachingResponse.getContentAsByteArray();
+                boolean keepBody = body.length <= MAX_STORED_BODY;
+                idempotencyService.complete(userId, key, new StoredResponse(requestHash, cachingResponse.getStatus(),
+                        keepBody ? cachingResponse.getContentType() : null,
+                        keepBody ? new String(body, StandardCharsets.UTF_8) : null));
+            }
+        } catch (RuntimeException e) {
+            // The request has already committed. Leave the claim IN_PROGRESS:
+            // retries get 409 until it expires instead of moving money again.
+        } finally {
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null)
+            response.setContentType(stored.contentType());
+        if (stored.body() != null)
+            response.getOutputStream().write(stored.body().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Same {"error": ...} shape as GlobalExceptionHandler
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(("{\"error\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Reads the (small, JSON) body up front so it can be hashed before the
+    // controller consumes it.
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // The body is already buffered: all of it is available at once
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        if (!isFinished())
+                            listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bank.banking_app.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,6 +13,13 @@ import java.io.IOException;
 import java.util.Collections;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final AccountPrincipalCache principalCache;
+
+    public JwtAuthenticationFilter(AccountPrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
     @Override
     public void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException{
@@ -19,14 +27,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if(header != null && header.startsWith("Bearer ")){
             String token = header.substring(7);
 
-            if (JwtUtil.isValid(token)){
-                String email = JwtUtil.extraSubject(token);
-
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(email,null, Collections.emptyList());
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            String email = subjectOf(token);
+            if (email != null){
+                // Services read user/account ids from this principal instead of
+                // looking the caller up again; a token for a user without an
+                // account stays unauthenticated.
+                principalCache.get(email).ifPresent(principal -> {
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(principal,null, Collections.emptyList());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                });
             }
         }
 filterChain.doFilter(request,response);
     }
+
+    // One verification per request; repeat tokens are a cache hit in JwtUtil.
+    private static String subjectOf(String token) {
+        try {
+            return JwtUtil.verify(token).getSubject();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
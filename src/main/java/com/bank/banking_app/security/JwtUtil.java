@@ -1,11 +1,22 @@
 package com.bank.banking_app.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 public class   JwtUtil {
     private static final String SECRET =  "banking-application-secret-key-1234567890123456";
@@ -25,6 +36,41 @@ public class   JwtUtil {
     private static final Key KEY =
             Keys.hmacShaKeyFor(SECRET.getBytes());
 
+    // Built once: a JwtParser is immutable and thread-safe.
+    private static final JwtParser PARSER = Jwts.parserBuilder()
+            .setSigningKey(KEY)
+            .build();
+
+    private static final long MAX_VERIFIED_TOKENS = 100_000;
+
+    // Claims of tokens whose signature has already been checked, keyed by the
+    // SHA-256 of the token so raw bearer tokens are not kept on the heap. Each
+    // entry expires with its token's exp claim, so an expired token always
+    // goes back through PARSER and is rejected there.
+    private static final Cache<String, Claims> VERIFIED = Caffeine.newBuilder()
+            .maximumSize(MAX_VERIFIED_TOKENS)
+            .expireAfter(new Expiry<String, Claims>() {
+                @Override
+                public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                    Date expiration = claims.getExpiration();
+                    long ttlMillis = expiration == null
+                            ? EXPIRATION_TIME
+                            : expiration.getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
     public static String generateToken(String subject){
         return Jwts.builder()
                 .setSubject(subject)
@@ -33,21 +79,48 @@ public class   JwtUtil {
                 .signWith(KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
+
+    /**
+     * Verifies the token once and returns its claims. Repeat calls with the same
+     * token are served from the verified-token cache until the token expires.
+     * Throws JwtException (or IllegalArgumentException for a blank token) when
+     * the token is malformed, expired or badly signed. The returned Claims are
+     * shared between callers and must not be modified.
+     */
+    public static Claims verify(String token){
+        if (token == null || token.isEmpty())
+            throw new IllegalArgumentException("JWT token is empty");
+
+        String key = sha256(token);
+        Claims cached = VERIFIED.getIfPresent(key);
+        if (cached != null)
+            return cached;
+
+        Claims claims = PARSER.parseClaimsJws(token).getBody();
+        VERIFIED.put(key, claims);
+        return claims;
+    }
+
     public static String extraSubject(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(KEY)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).getSubject();
     }
     public static boolean isValid(String token){
         try{
-            extraSubject(token);
+            verify(token);
             return true;
-        }catch (Exception e){
+        }catch (JwtException | IllegalArgumentException e){
             return false;
         }
     }
 
+    private static String sha256(String token){
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
 }
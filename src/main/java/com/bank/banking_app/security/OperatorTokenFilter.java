@@ -0,0 +1,56 @@
+package com.bank.banking_app.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Authenticates the operator endpoints: the bulk account import, which
+ * creates customers and their opening balances, and hot-account slots.
+ * Customer JWTs never carry their role: the caller must present the
+ * configured operator token (compared in constant time). With no token
+ * configured nobody can call them.
+ */
+public class OperatorTokenFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Operator-Token";
+    public static final String ROLE = "OPERATOR";
+    public static final List<String> PATH_PREFIXES = List.of("/api/accounts/import/", "/api/accounts/hot-slots/");
+
+    // null while no banking.operator-token is configured
+    private final byte[] operatorToken;
+
+    public OperatorTokenFilter(String operatorToken) {
+        this.operatorToken = operatorToken == null || operatorToken.isBlank()
+                ? null : operatorToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return PATH_PREFIXES.stream().noneMatch(path::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String presented = request.getHeader(HEADER);
+        if (operatorToken != null && presented != null
+                && MessageDigest.isEqual(operatorToken, presented.getBytes(StandardCharsets.UTF_8))) {
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    "operator", null, List.of(new SimpleGrantedAuthority("ROLE_" + ROLE)));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,196 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.TransactionType;
+import com.bank.banking_app.exception.AccountNotFoundException;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.AccountBalanceSlot;
+import com.bank.banking_app.repository.AccountBalanceSlotRepository;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalancePosition;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Credits, sweeps and totals across an account's balance rows.
+ * <p>
+ * A normal account keeps its balance on the accounts row. A hot account
+ * (merchants, salary pools) also has hotSlots rows in account_balance_slots:
+ * each credit goes to a random slot, so N concurrent credits wait on N row
+ * locks instead of one. Debits still run against the accounts row; when it
+ * is short, sweep() moves the slots into it first. The balance shown to the
+ * owner is the accounts row plus the slots.
+ */
+@Service
+public class AccountBalanceService {
+
+    public static final int MAX_HOT_SLOTS = 64;
+
+    // Where a credit landed: slot 0 is the accounts row. balanceAfter is the
+    // account's total; for a hot account it is read without locking the other
+    // slots, so it is a point-in-time figure, not a serialised running balance.
+    public record Credit(Long accountId, int slot, long seq, BigDecimal amount, BigDecimal balanceAfter) {
+
+        public LedgerService.Leg leg() {
+            return LedgerService.Leg.customerSlot(accountId, slot, seq, amount);
+        }
+    }
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    private final LedgerService ledgerService;
+    // accountId -> hotSlots. A stale 0 only sends credits to the accounts row,
+    // which is always correct, so a short TTL is enough across instances.
+    private final Cache<Long, Integer> slotCounts;
+
+    public AccountBalanceService(AccountRepository accountRepository,
+                                 AccountBalanceSlotRepository slotRepository,
+                                 LedgerService ledgerService,
+                                 @Value("${banking.hot-accounts.cache-size:100000}") long cacheSize,
+                                 @Value("${banking.hot-accounts.cache-ttl:1m}") Duration cacheTtl) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+        this.ledgerService = ledgerService;
+        this.slotCounts = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public int slotsOf(Long accountId) {
+        Integer cached = slotCounts.getIfPresent(accountId);
+        if (cached != null)
+            return cached;
+
+        int slots = accountRepository.findHotSlotsById(accountId).orElse(0);
+        slotCounts.put(accountId, slots);
+        return slots;
+    }
+
+    /**
+     * Credits the account, on a random slot if it is hot. The caller posts
+     * {@link Credit#leg()} in its journal.
+     *
+     * @return empty if the account is missing or not ACTIVE
+     */
+    @Transactional
+    public Optional<Credit> credit(Long accountId, BigDecimal amount) {
+        int slots = slotsOf(accountId);
+        if (slots == 0) {
+            if (accountRepository.creditIfActive(accountId, amount) == 0)
+                return Optional.empty();
+            // Read back under the row lock the UPDATE still holds.
+            BalancePosition after = positionOf(accountId);
+            return Optional.of(new Credit(accountId, 0, after.seq(), amount, after.balance()));
+        }
+
+        // Plain read: a hot credit must not touch the accounts row at all.
+        if (!accountRepository.existsByIdAndStatus(accountId, KycStatus.AccountStatus.ACTIVE))
+            return Optional.empty();
+
+        int slot = 1 + ThreadLocalRandom.current().nextInt(slots);
+        if (slotRepository.credit(accountId, slot, amount) == 0)
+            throw new IllegalStateException("Missing balance slot " + slot + " of account " + accountId);
+        BalancePosition after = slotRepository.findPosition(accountId, slot).orElseThrow();
+        return Optional.of(new Credit(accountId, slot, after.seq(), amount, totalBalance(accountId)));
+    }
+
+    /**
+     * Moves every non-empty slot of an ACTIVE hot account into its accounts
+     * row, as one ledger journal, so a debit that just failed can be retried.
+     * Locks the slots in slot order after the accounts row the failed debit
+     * already holds; credits only ever lock one slot, so this cannot deadlock
+     * with them.
+     *
+     * @return false if there was nothing to sweep
+     */
+    @Transactional
+    public boolean sweep(Long accountId) {
+        List<AccountBalanceSlot> slots = slotRepository.findNonEmptyForUpdate(accountId);
+        if (slots.isEmpty()
+                || !accountRepository.existsByIdAndStatus(accountId, KycStatus.AccountStatus.ACTIVE))
+            return false;
+
+        BigDecimal total = BigDecimal.ZERO;
+        List<LedgerService.Leg> legs = new ArrayList<>(slots.size() + 1);
+        for (AccountBalanceSlot slot : slots) {
+            total = total.add(slot.getBalance());
+            slot.setLedgerSeq(slot.getLedgerSeq() + 1);
+            legs.add(LedgerService.Leg.customerSlot(
+                    accountId, slot.getSlot(), slot.getLedgerSeq(), slot.getBalance().negate()));
+            slot.setBalance(BigDecimal.ZERO);
+        }
+
+        // Flushes the slot updates before crediting the accounts row.
+        if (accountRepository.creditIfActive(accountId, total) == 0)
+            throw new IllegalStateException("Account " + accountId + " changed status during sweep");
+        legs.add(LedgerService.Leg.customer(accountId, positionOf(accountId).seq(), total));
+
+        ledgerService.post(TransactionType.SWEEP, legs.toArray(LedgerService.Leg[]::new));
+        return true;
+    }
+
+    // accounts.balance plus, for a hot account, its slots
+    public BigDecimal totalBalance(Long accountId, BigDecimal accountRowBalance) {
+        return slotsOf(accountId) == 0
+                ? accountRowBalance
+                : accountRowBalance.add(slotRepository.sumBalance(accountId));
+    }
+
+    /**
+     * Turns on hot mode, or adds slots to a hot account. Slots cannot be
+     * removed: their balances would first have to be swept. Other instances
+     * see the new slot count once their cached one expires (cache-ttl).
+     */
+    @Transactional
+    public void enableHotMode(Long accountId, int slots) {
+        if (slots < 1 || slots > MAX_HOT_SLOTS)
+            throw new BadRequestException("Hot slots must be between 1 and " + MAX_HOT_SLOTS);
+
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        if (slots < account.getHotSlots())
+            throw new BadRequestException("Hot slots can only be added");
+
+        for (int slot = account.getHotSlots() + 1; slot <= slots; slot++) {
+            slotRepository.save(AccountBalanceSlot.builder()
+                    .accountId(accountId)
+                    .slot(slot)
+                    .balance(BigDecimal.ZERO)
+                    .ledgerSeq(0)
+                    .build());
+        }
+        account.setHotSlots(slots);
+        slotCounts.invalidate(accountId);
+    }
+
+    // The operator endpoint's form: accounts are known to operators by number
+    @Transactional
+    public void enableHotMode(String accountNumber, int slots) {
+        Long accountId = accountRepository.findIdByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        enableHotMode(accountId, slots);
+    }
+
+    private BigDecimal totalBalance(Long accountId) {
+        BigDecimal accountRow = accountRepository.findBalanceById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+        return accountRow.add(slotRepository.sumBalance(accountId));
+    }
+
+    private BalancePosition positionOf(Long accountId) {
+        return accountRepository.findPositionById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+    }
+}
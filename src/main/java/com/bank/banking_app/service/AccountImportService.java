@@ -0,0 +1,422 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.Transformer.AccountTransformer;
+import com.bank.banking_app.Transformer.UserTransformer;
+import com.bank.banking_app.dto.request.OpenAccountRequest;
+import com.bank.banking_app.dto.response.AccountImportRowError;
+import com.bank.banking_app.dto.response.AccountImportSummary;
+import com.bank.banking_app.enums.AccountImportStatus;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.exception.DuplicateResourceException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.BoundedPasswordEncoder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk customer onboarding from a CSV file (branch migrations).
+ * <p>
+ * The file is read line by line, never held in memory. Rows are checked
+ * with the Bean Validation rules of OpenAccountRequest, then handled in
+ * chunks: identifiers already taken are found with one IN query per
+ * identifier for the whole chunk, passwords are hashed in parallel on the
+ * password pool (outside any transaction), and the chunk's users, accounts
+ * and opening ledger entries are batch-inserted in one transaction, which
+ * also moves the job's checkpoint past the chunk. Re-running a job that
+ * stopped part way skips everything up to its checkpoint, once the lines
+ * skipped hash to what the job recorded there.
+ */
+@Service
+public class AccountImportService {
+
+    static final String CSV_HEADER =
+            "fullName,email,phone,password,aadhaarNumber,panCardNumber,accountType,initialDeposit";
+    private static final int COLUMNS = 8;
+    private static final Pattern JOB_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    // Jobs running on this instance; another instance running the same job
+    // loses the checkpoint compare-and-set instead
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public AccountImportService(UserRepository userRepository,
+                                AccountRepository accountRepository,
+                                LedgerService ledgerService,
+                                AccountNumberAllocator accountNumberAllocator,
+                                BoundedPasswordEncoder passwordEncoder,
+                                Validator validator,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${banking.account-import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports (or resumes) job {@code jobId} from a CSV with the
+     * {@value #CSV_HEADER} header, handing each chunk's rejected rows to
+     * {@code errors} once the chunk has committed. A completed job is read
+     * only to check it is the same file; its summary is returned as is.
+     */
+    public AccountImportSummary importCsv(String jobId, InputStream csv,
+                                          Consumer<List<AccountImportRowError>> errors) throws IOException {
+        if (jobId == null || !JOB_ID.matcher(jobId).matches())
+            throw new BadRequestException("Job id must be 1-64 letters, digits, '.', '_' or '-'");
+        if (!running.add(jobId))
+            throw new DuplicateResourceException("Import " + jobId + " is already running");
+        try {
+            Job job = startJob(jobId);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null || !CSV_HEADER.equalsIgnoreCase(header.replace(" ", "")))
+                throw new BadRequestException("CSV header must be " + CSV_HEADER);
+
+            // Of the header and every line read so far, blank ones included
+            MessageDigest digest = sha256();
+            update(digest, header);
+            boolean checked = job.checkpointLine == 0;
+            long lineNumber = 1;
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                lineNumber++;
+                if (lineNumber > job.checkpointLine && !checked) {
+                    checkSameFile(job, digest);
+                    checked = true;
+                    if (job.status == AccountImportStatus.COMPLETED)
+                        throw differentFile(job);
+                }
+                update(digest, text);
+                if (lineNumber <= job.checkpointLine || text.isBlank())
+                    continue;
+                chunk.add(new Row(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    errors.accept(importChunk(job, chunk, lineNumber, hex(digest)));
+                    chunk.clear();
+                }
+            }
+            if (!checked)
+                checkSameFile(job, digest);
+            if (job.status == AccountImportStatus.COMPLETED)
+                return job.summary();
+            // Also records trailing blank lines, so a re-run has nothing left to read
+            if (lineNumber > job.checkpointLine)
+                errors.accept(importChunk(job, chunk, lineNumber, hex(digest)));
+
+            complete(job);
+            return job.summary();
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    // Throws unless the lines read so far, exactly up to the checkpoint, hash to the job's content_hash
+    private static void checkSameFile(Job job, MessageDigest digest) {
+        if (job.contentHash != null && !job.contentHash.equals(hex(digest)))
+            throw differentFile(job);
+    }
+
+    private static BadRequestException differentFile(Job job) {
+        return new BadRequestException("Import " + job.jobId + " was started with a different file");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String line) {
+        digest.update((line + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Of the lines read so far; the digest carries on with the next line
+    private static String hex(MessageDigest digest) {
+        try {
+            return HexFormat.of().formatHex(((MessageDigest) digest.clone()).digest());
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+    }
+
+    private List<AccountImportRowError> importChunk(Job job, List<Row> rows, long lastLine, String contentHash) {
+        List<Candidate> parsed = new ArrayList<>(rows.size());
+        List<AccountImportRowError> invalid = new ArrayList<>();
+        for (Row row : rows) {
+            Candidate candidate = parse(row);
+            if (candidate.error != null)
+                invalid.add(candidate.toError());
+            else
+                parsed.add(candidate);
+        }
+
+        // A second pass only when a sign-up took one of the identifiers
+        // between the check and the insert; the check then sees it.
+        for (int attempt = 1; ; attempt++) {
+            List<AccountImportRowError> rejected = new ArrayList<>(invalid);
+            List<Candidate> fresh = dropTaken(parsed, rejected);
+            hashPasswords(fresh);
+            rejected.sort(Comparator.comparingLong(AccountImportRowError::getLine));
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(job, fresh, rejected.size(), lastLine, contentHash));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= 2)
+                    throw e;
+                continue;
+            }
+            job.checkpointLine = lastLine;
+            job.contentHash = contentHash;
+            job.imported += fresh.size();
+            job.rejected += rejected.size();
+            return rejected;
+        }
+    }
+
+    private Candidate parse(Row row) {
+        String[] fields = row.text().split(",", -1);
+        if (fields.length != COLUMNS)
+            return Candidate.rejected(row.number(), null, "Expected " + COLUMNS + " columns, found " + fields.length);
+        for (int i = 0; i < fields.length; i++)
+            fields[i] = fields[i].trim();
+
+        AccountType accountType;
+        try {
+            accountType = AccountType.valueOf(fields[6].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Candidate.rejected(row.number(), fields[1], "accountType: must be SAVINGS or CURRENT");
+        }
+        BigDecimal initialDeposit;
+        try {
+            initialDeposit = new BigDecimal(fields[7]);
+        } catch (NumberFormatException e) {
+            return Candidate.rejected(row.number(), fields[1], "initialDeposit: must be a number");
+        }
+
+        OpenAccountRequest request = OpenAccountRequest.builder()
+                .fullName(fields[0])
+                .email(fields[1])
+                .phone(fields[2])
+                .password(fields[3])
+                .aadhaarNumber(fields[4])
+                .panCardNumber(fields[5])
+                .accountType(accountType)
+                .initialDeposit(initialDeposit)
+                .build();
+
+        Set<ConstraintViolation<OpenAccountRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return Candidate.rejected(row.number(), request.getEmail(), error);
+        }
+        return new Candidate(row.number(), request, null);
+    }
+
+    // Rows whose identifiers exist already, or appear on an earlier row of the chunk
+    private List<Candidate> dropTaken(List<Candidate> candidates, List<AccountImportRowError> rejected) {
+        Set<String> emails = taken(candidates, OpenAccountRequest::getEmail, userRepository::findEmailsIn);
+        Set<String> phones = taken(candidates, OpenAccountRequest::getPhone, userRepository::findPhonesIn);
+        Set<String> aadhaarNumbers = taken(candidates, OpenAccountRequest::getAadhaarNumber,
+                userRepository::findAadhaarNumbersIn);
+        Set<String> panCardNumbers = taken(candidates, OpenAccountRequest::getPanCardNumber,
+                userRepository::findPanCardNumbersIn);
+
+        List<Candidate> fresh = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            OpenAccountRequest request = candidate.request;
+            // Same messages as OpenAccountService
+            String error = emails.contains(request.getEmail()) ? "Email already exists"
+                    : phones.contains(request.getPhone()) ? "Phone already exists"
+                    : aadhaarNumbers.contains(request.getAadhaarNumber()) ? "Aadhaar already exists"
+                    : panCardNumbers.contains(request.getPanCardNumber()) ? "PAN already exists"
+                    : null;
+            if (error == null) {
+                emails.add(request.getEmail());
+                phones.add(request.getPhone());
+                aadhaarNumbers.add(request.getAadhaarNumber());
+                panCardNumbers.add(request.getPanCardNumber());
+                fresh.add(candidate);
+            } else {
+                rejected.add(AccountImportRowError.builder()
+                        .line(candidate.line)
+                        .email(request.getEmail())
+                        .error(error)
+                        .build());
+            }
+        }
+        return fresh;
+    }
+
+    private static Set<String> taken(List<Candidate> candidates, Function<OpenAccountRequest, String> identifier,
+                                     Function<Set<String>, List<String>> findExisting) {
+        Set<String> values = new HashSet<>();
+        for (Candidate candidate : candidates)
+            values.add(identifier.apply(candidate.request));
+        return values.isEmpty() ? new HashSet<>() : new HashSet<>(findExisting.apply(values));
+    }
+
+    // Hashes once per row, even if the chunk is checked again
+    private void hashPasswords(List<Candidate> candidates) {
+        List<Candidate> pending = candidates.stream().filter(c -> c.passwordHash == null).toList();
+        List<String> hashes = passwordEncoder.encodeAll(pending.stream().map(c -> c.request.getPassword()).toList());
+        for (int i = 0; i < pending.size(); i++)
+            pending.get(i).passwordHash = hashes.get(i);
+    }
+
+    private void insert(Job job, List<Candidate> candidates, int rejected, long lastLine, String contentHash) {
+        if (!candidates.isEmpty()) {
+            List<Users> users = new ArrayList<>(candidates.size());
+            for (Candidate candidate : candidates)
+                users.add(UserTransformer.accountRequestToUser(candidate.request, candidate.passwordHash));
+            // Flushed here so a unique-constraint race is translated and retried
+            userRepository.saveAllAndFlush(users);
+
+            List<Account> accounts = new ArrayList<>(candidates.size());
+            for (int i = 0; i < candidates.size(); i++) {
+                OpenAccountRequest request = candidates.get(i).request;
+                accounts.add(AccountTransformer.accountRequestToAccount(
+                        accountNumberAllocator.next(),
+                        request.getAccountType(),
+                        request.getInitialDeposit(),
+                        KycStatus.AccountStatus.ACTIVE,
+                        users.get(i)));
+            }
+            accountRepository.saveAll(accounts);
+            accounts.forEach(ledgerService::recordOpening);
+        }
+
+        int advanced = jdbcTemplate.update("update account_import_jobs set checkpoint_line = ?, content_hash = ?, " +
+                        "imported = imported + ?, rejected = rejected + ?, updated_at = ? " +
+                        "where job_id = ? and checkpoint_line = ?",
+                lastLine, contentHash, candidates.size(), rejected, Timestamp.valueOf(LocalDateTime.now()),
+                job.jobId, job.checkpointLine);
+        if (advanced != 1)
+            throw new DuplicateResourceException("Import " + job.jobId + " was advanced by another run");
+    }
+
+    private Job startJob(String jobId) {
+        jdbcTemplate.update("insert into account_import_jobs " +
+                        "(job_id, status, checkpoint_line, imported, rejected, updated_at) " +
+                        "select ?, ?, 0, 0, 0, ? from (select 1 as one) seed " +
+                        "where not exists (select 1 from account_import_jobs where job_id = ?)",
+                jobId, AccountImportStatus.IN_PROGRESS.name(), Timestamp.valueOf(LocalDateTime.now()), jobId);
+        return jdbcTemplate.queryForObject("select status, checkpoint_line, content_hash, imported, rejected " +
+                        "from account_import_jobs where job_id = ?",
+                (rs, rowNum) -> new Job(jobId, AccountImportStatus.valueOf(rs.getString("status")),
+                        rs.getLong("checkpoint_line"), rs.getString("content_hash"),
+                        rs.getLong("imported"), rs.getLong("rejected")),
+                jobId);
+    }
+
+    private void complete(Job job) {
+        jdbcTemplate.update("update account_import_jobs set status = ?, updated_at = ? where job_id = ?",
+                AccountImportStatus.COMPLETED.name(), Timestamp.valueOf(LocalDateTime.now()), job.jobId);
+        job.status = AccountImportStatus.COMPLETED;
+    }
+
+    private record Row(long number, String text) {
+    }
+
+    private static final class Candidate {
+        private final long line;
+        private final OpenAccountRequest request;
+        private final String error;
+        private String passwordHash;
+
+        private Candidate(long line, OpenAccountRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+
+        private static Candidate rejected(long line, String email, String error) {
+            return new Candidate(line, OpenAccountRequest.builder().email(email).build(), error);
+        }
+
+        private AccountImportRowError toError() {
+            return AccountImportRowError.builder().line(line).email(request.getEmail()).error(error).build();
+        }
+    }
+
+    // The job's state as of the last chunk this run committed
+    private static final class Job {
+        private final String jobId;
+        private AccountImportStatus status;
+        private long checkpointLine;
+        private String contentHash;
+        private long imported;
+        private long rejected;
+
+        private Job(String jobId, AccountImportStatus status, long checkpointLine, String contentHash,
+                    long imported, long rejected) {
+            this.jobId = jobId;
+            this.status = status;
+            this.checkpointLine = checkpointLine;
+            this.contentHash = contentHash;
+            this.imported = imported;
+            this.rejected = rejected;
+        }
+
+        private AccountImportSummary summary() {
+            return AccountImportSummary.builder()
+                    .jobId(jobId)
+                    .status(status)
+                    .checkpointLine(checkpointLine)
+                    .imported(imported)
+                    .rejected(rejected)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bank.banking_app.service;
+
+/**
+ * Hands out account numbers for new accounts. Numbers must be unique across
+ * every running instance without the caller checking the accounts table.
+ */
+public interface AccountNumberAllocator {
+
+    String next();
+}
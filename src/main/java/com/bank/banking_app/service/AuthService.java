@@ -5,6 +5,7 @@ import com.bank.banking_app.dto.response.LoginResponse;
 import com.bank.banking_app.enums.KycStatus;
 import com.bank.banking_app.exception.AccountNotActiveException;
 import com.bank.banking_app.exception.InvalidCredentialsException;
+import com.bank.banking_app.exception.ServiceUnavailableException;
 import com.bank.banking_app.models.Account;
 import com.bank.banking_app.models.Users;
 import com.bank.banking_app.repository.AccountRepository;
@@ -12,28 +13,45 @@ import com.bank.banking_app.repository.UserRepository;
 import com.bank.banking_app.security.JwtUtil;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class AuthService {
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate transactionTemplate;
 
     public AuthService(UserRepository userRepository,
                        AccountRepository accountRepository,
-                       PasswordEncoder passwordEncoder) {
+                       PasswordEncoder passwordEncoder,
+                       PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.accountRepository = accountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
+
+       // Not @Transactional: the lookups run in short read-only transactions
+       // (a read replica when configured) so no connection is held while the
+       // password hash is checked. Nothing read here goes into the principal
+       // cache: a lagging replica could hand it a stale status, and the cache
+       // loads from the primary on the client's next request instead.
        public LoginResponse login(LoginRequest request){
-           Users user = userRepository.findByEmail(request.getIdentifier())
-                   .or(()->userRepository.findByPhone(request.getIdentifier()))
+           Users user = readOnlyTransaction.execute(status -> userRepository.findByEmail(request.getIdentifier())
+                   .or(()->userRepository.findByPhone(request.getIdentifier())))
                    .orElseThrow(()->new InvalidCredentialsException("Invalid Credentials"));
 
            if(!passwordEncoder.matches(request.getPassword(),user.getPassword()))
                throw new InvalidCredentialsException("Incorrect Password");
-           Account account = accountRepository.findByUser(user)
+           if(passwordEncoder.upgradeEncoding(user.getPassword()))
+               rehash(user, request.getPassword());
+
+           Account account = readOnlyTransaction.execute(status -> accountRepository.findByUser(user))
                    .orElseThrow(()->new AccountNotActiveException("Account Not Found"));
 
            if(account.getStatus() != KycStatus.AccountStatus.ACTIVE)
@@ -47,4 +65,17 @@ public class AuthService {
            return response;
        }
 
+       // The stored hash is below the configured cost: replace it while we have
+       // the plain password. Best effort, a busy hasher just leaves it for next time.
+       private void rehash(Users user, String rawPassword){
+           String upgraded;
+           try {
+               upgraded = passwordEncoder.encode(rawPassword);
+           } catch (ServiceUnavailableException e) {
+               return;
+           }
+           transactionTemplate.executeWithoutResult(status ->
+                   userRepository.replacePassword(user.getId(), user.getPassword(), upgraded));
+       }
+
 }
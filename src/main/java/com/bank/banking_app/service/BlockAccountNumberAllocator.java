@@ -0,0 +1,138 @@
+package com.bank.banking_app.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Account numbers from blocks reserved in the id_generators table.
+ * <p>
+ * Each instance reserves {@code blockSize} consecutive 11-digit bodies at a
+ * time by moving the shared high-water mark under a row lock, in its own
+ * transaction, then hands them out from memory with a Luhn check digit
+ * appended, so instances never coordinate per account. The few numbers in a
+ * fresh block that already exist (issued at random before blocks) are read
+ * once with the reservation and skipped. Numbers of a block not used before
+ * a restart are simply never issued.
+ * <p>
+ * The fast path is a single getAndIncrement; only refilling takes the lock.
+ */
+@Service
+public class BlockAccountNumberAllocator implements AccountNumberAllocator {
+
+    static final String GENERATOR = "account_number";
+    static final long MAX_BODY = 99_999_999_999L;
+    // Numbers already taken in a block's range (legacy random ones); public so
+    // QueryPlanTest can check its plan
+    public static final String TAKEN_IN_RANGE_SQL =
+            "select account_number from accounts where account_number between ? and ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate reserveTransaction;
+    private final int blockSize;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0, Set.of());
+
+    public BlockAccountNumberAllocator(JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${banking.account-number.block-size:1000}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reserveTransaction = new TransactionTemplate(transactionManager);
+        // Commits straight away, whatever the account-opening transaction does
+        this.reserveTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String next() {
+        while (true) {
+            Block current = block;
+            long body = current.cursor.getAndIncrement();
+            if (body < current.end) {
+                String number = format(body);
+                if (!current.taken.contains(number))
+                    return number;
+            } else {
+                refill(current);
+            }
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // Another caller may have refilled while we waited
+            if (block == exhausted)
+                block = reserve();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private Block reserve() {
+        return reserveTransaction.execute(status -> {
+            long start = jdbcTemplate.queryForObject(
+                    "select next_val from id_generators where gen_name = ? for update", Long.class, GENERATOR);
+            long end = Math.min(start + blockSize, MAX_BODY + 1);
+            if (start >= end)
+                throw new IllegalStateException("Account numbers exhausted");
+            jdbcTemplate.update("update id_generators set next_val = ? where gen_name = ?", end, GENERATOR);
+
+            Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(TAKEN_IN_RANGE_SQL, String.class,
+                    Long.toString(start * 10), Long.toString(end * 10 - 1)));
+            return new Block(start, end, taken);
+        });
+    }
+
+    static String format(long body) {
+        return Long.toString(body * 10 + checkDigit(body));
+    }
+
+    static boolean isValid(String number) {
+        if (number == null || number.isEmpty())
+            return false;
+        for (int i = 0; i < number.length(); i++) {
+            if (!Character.isDigit(number.charAt(i)))
+                return false;
+        }
+        long value = Long.parseLong(number);
+        return checkDigit(value / 10) == value % 10;
+    }
+
+    // Luhn: double every other digit starting from the rightmost digit of the body
+    static int checkDigit(long body) {
+        int sum = 0;
+        boolean doubled = true;
+        for (long rest = body; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9)
+                    digit -= 9;
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static final class Block {
+        private final long end;
+        private final AtomicLong cursor;
+        private final Set<String> taken;
+
+        private Block(long start, long end, Set<String> taken) {
+            this.end = end;
+            this.cursor = new AtomicLong(start);
+            this.taken = taken;
+        }
+    }
+}
@@ -0,0 +1,523 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.Transformer.TransactionTransformer;
+import com.bank.banking_app.dto.request.TransferRequest;
+import com.bank.banking_app.dto.response.BulkTransferLineResult;
+import com.bank.banking_app.dto.response.BulkTransferSummary;
+import com.bank.banking_app.enums.BulkTransferBatchStatus;
+import com.bank.banking_app.enums.BulkTransferLineStatus;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.TransactionStatus;
+import com.bank.banking_app.enums.TransactionType;
+import com.bank.banking_app.exception.AccountNotActiveException;
+import com.bank.banking_app.exception.AccountNotFoundException;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.exception.DuplicateResourceException;
+import com.bank.banking_app.exception.InsufficientBalanceException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Transaction;
+import com.bank.banking_app.repository.AccountPosition;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalancePosition;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.TransferTarget;
+import com.bank.banking_app.security.AccountPrincipalCache;
+import com.bank.banking_app.security.IdempotencyFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Many transfers from the caller's account in one request (payroll).
+ * <p>
+ * All receivers are resolved up front with IN queries, so bad lines are
+ * rejected before any money moves. Valid lines are then applied in chunks,
+ * one transaction each: the sender is debited once for the chunk total,
+ * receivers are credited with one JDBC batch (one UPDATE per distinct
+ * receiver), and the ledger journals and Transaction rows are batch-inserted.
+ * A chunk commits or rolls back as a whole; committed chunks stay committed
+ * if a later one fails.
+ * <p>
+ * Every batch carries an Idempotency-Key, scoped to the sender. Each chunk
+ * moves the batch's checkpoint past its lines in the same transaction as its
+ * money, so resubmitting a batch that was cut off part way (a dropped
+ * connection, a crash) resumes after the last settled chunk instead of paying
+ * the earlier lines again. A completed batch just returns its summary.
+ */
+@Service
+public class BulkTransferService {
+
+    // Same guards as AccountRepository.creditIfActive, for several entries at once
+    private static final String CREDIT_SQL = "update accounts set balance = balance + ?, " +
+            "ledger_seq = ledger_seq + ? where id = ? and status = 'ACTIVE'";
+    private static final int IN_LIST_SIZE = 1000;
+    private static final String CSV_HEADER = "receiverAccountNumber,amount";
+    private static final int MAX_BATCH_ID_LENGTH = 255;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountPrincipalCache principalCache;
+    private final LedgerService ledgerService;
+    private final AccountBalanceService balanceService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxLines;
+    private final int chunkSize;
+    private final int maxAttempts;
+    // Batches running on this instance; another instance running the same
+    // batch loses the checkpoint compare-and-set instead
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public BulkTransferService(AccountRepository accountRepository,
+                               TransactionRepository transactionRepository,
+                               AccountPrincipalCache principalCache,
+                               LedgerService ledgerService,
+                               AccountBalanceService balanceService,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${banking.transfer.batch.max-lines:50000}") int maxLines,
+                               @Value("${banking.transfer.batch.chunk-size:500}") int chunkSize,
+                               @Value("${banking.transfer.max-attempts:3}") int maxAttempts) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.principalCache = principalCache;
+        this.ledgerService = ledgerService;
+        this.balanceService = balanceService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxLines = maxLines;
+        this.chunkSize = chunkSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Applies (or resumes) batch {@code batchId}, handing each chunk's line
+     * results to {@code results} as soon as the chunk is done. Problems with
+     * the batch as a whole (empty, too long, sender inactive or short of the
+     * total) are thrown before anything is applied. A resubmit only reports
+     * the lines after the batch's checkpoint.
+     */
+    public BulkTransferSummary transfer(String batchId, List<TransferRequest> requests,
+                                        Consumer<List<BulkTransferLineResult>> results) {
+        if (batchId == null || batchId.isBlank())
+            throw new BadRequestException(IdempotencyFilter.HEADER + " is required for a batch");
+        if (batchId.length() > MAX_BATCH_ID_LENGTH)
+            throw new BadRequestException(IdempotencyFilter.HEADER + " must be at most "
+                    + MAX_BATCH_ID_LENGTH + " characters");
+        if (requests == null || requests.isEmpty())
+            throw new BadRequestException("Batch is empty");
+        if (requests.size() > maxLines)
+            throw new BadRequestException("Batch exceeds " + maxLines + " lines");
+
+        Long senderId = principalCache.current().accountId();
+        String runKey = senderId + ":" + batchId;
+        if (!running.add(runKey))
+            throw new DuplicateResourceException("Batch " + batchId + " is already running");
+        try {
+            String requestHash = hash(requests);
+            Batch batch = startBatch(senderId, batchId, requestHash);
+            if (!batch.requestHash.equals(requestHash))
+                throw new BadRequestException(IdempotencyFilter.HEADER + " was already used for a different batch");
+            if (batch.status == BulkTransferBatchStatus.COMPLETED)
+                return batch.summary(requests.size());
+
+            List<Line> lines = resolve(senderId, requests, batch.checkpointLine);
+            if (!lines.isEmpty()) {
+                BigDecimal total = BigDecimal.ZERO;
+                for (Line line : lines) {
+                    if (line.error() == null)
+                        total = total.add(line.amount());
+                }
+                checkSender(senderId, total);
+            }
+
+            // Set once the sender can no longer pay: every later line fails with it
+            String stopReason = null;
+
+            for (int from = 0; from < lines.size(); from += chunkSize) {
+                List<Line> chunk = lines.subList(from, Math.min(from + chunkSize, lines.size()));
+                List<Line> valid = chunk.stream().filter(line -> line.error() == null).toList();
+                int lastLine = chunk.getLast().number();
+                int rejected = chunk.size() - valid.size();
+                BigDecimal chunkTotal = BigDecimal.ZERO;
+                for (Line line : valid)
+                    chunkTotal = chunkTotal.add(line.amount());
+
+                String chunkError = stopReason;
+                boolean applied = false;
+                if (chunkError == null && !valid.isEmpty()) {
+                    BigDecimal debit = chunkTotal;
+                    try {
+                        applyWithRetry(() -> {
+                            applyChunk(senderId, valid);
+                            advance(batch, lastLine, valid.size(), rejected, 0, debit);
+                        });
+                        batch.advanced(lastLine, valid.size(), rejected, 0, debit);
+                        applied = true;
+                    } catch (InsufficientBalanceException | AccountNotActiveException e) {
+                        stopReason = chunkError = e.getMessage();
+                    } catch (ReceiverRejectedException e) {
+                        chunkError = e.getMessage();
+                    }
+                }
+                if (!applied) {
+                    int failed = chunkError == null ? 0 : valid.size();
+                    transactionTemplate.executeWithoutResult(status ->
+                            advance(batch, lastLine, 0, rejected, failed, BigDecimal.ZERO));
+                    batch.advanced(lastLine, 0, rejected, failed, BigDecimal.ZERO);
+                }
+
+                List<BulkTransferLineResult> chunkResults = new ArrayList<>(chunk.size());
+                for (Line line : chunk) {
+                    BulkTransferLineStatus status;
+                    String error;
+                    if (line.error() != null) {
+                        status = BulkTransferLineStatus.REJECTED;
+                        error = line.error();
+                    } else if (chunkError != null) {
+                        status = BulkTransferLineStatus.FAILED;
+                        error = chunkError;
+                    } else {
+                        status = BulkTransferLineStatus.SUCCESS;
+                        error = null;
+                    }
+                    chunkResults.add(BulkTransferLineResult.builder()
+                            .line(line.number())
+                            .receiverAccountNumber(line.receiverAccountNumber())
+                            .amount(line.amount())
+                            .status(status)
+                            .error(error)
+                            .build());
+                }
+                results.accept(chunkResults);
+            }
+
+            complete(batch);
+            return batch.summary(requests.size());
+        } finally {
+            running.remove(runKey);
+        }
+    }
+
+    /**
+     * Reads a CSV batch of {@code receiverAccountNumber,amount} lines, with an
+     * optional header of exactly those names. Malformed lines are kept, with
+     * missing fields, so they are reported as rejected under their own number.
+     */
+    public static List<TransferRequest> parseCsv(String csv) {
+        List<String> rows = csv.lines().filter(row -> !row.isBlank()).toList();
+        int start = !rows.isEmpty() && CSV_HEADER.equalsIgnoreCase(rows.getFirst().replace(" ", "")) ? 1 : 0;
+
+        List<TransferRequest> requests = new ArrayList<>(rows.size());
+        for (String row : rows.subList(start, rows.size())) {
+            String[] fields = row.split(",", -1);
+            if (fields.length != 2) {
+                requests.add(new TransferRequest(null, null));
+                continue;
+            }
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(fields[1].trim());
+            } catch (NumberFormatException e) {
+                amount = null;
+            }
+            requests.add(new TransferRequest(fields[0].trim(), amount));
+        }
+        return requests;
+    }
+
+    private record Line(int number, String receiverAccountNumber, BigDecimal amount, Long receiverId, String error) {
+    }
+
+    // A receiver changed between validation and its chunk; only that chunk fails.
+    private static class ReceiverRejectedException extends RuntimeException {
+        ReceiverRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    // The batch's state as of the last chunk this run settled
+    private static final class Batch {
+        private final Long senderId;
+        private final String batchId;
+        private final String requestHash;
+        private BulkTransferBatchStatus status;
+        private int checkpointLine;
+        private int succeeded;
+        private int rejected;
+        private int failed;
+        private BigDecimal debited;
+
+        private Batch(Long senderId, String batchId, String requestHash, BulkTransferBatchStatus status,
+                      int checkpointLine, int succeeded, int rejected, int failed, BigDecimal debited) {
+            this.senderId = senderId;
+            this.batchId = batchId;
+            this.requestHash = requestHash;
+            this.status = status;
+            this.checkpointLine = checkpointLine;
+            this.succeeded = succeeded;
+            this.rejected = rejected;
+            this.failed = failed;
+            this.debited = debited;
+        }
+
+        private void advanced(int lastLine, int succeeded, int rejected, int failed, BigDecimal debited) {
+            this.checkpointLine = lastLine;
+            this.succeeded += succeeded;
+            this.rejected += rejected;
+            this.failed += failed;
+            this.debited = this.debited.add(debited);
+        }
+
+        private BulkTransferSummary summary(int lines) {
+            return BulkTransferSummary.builder()
+                    .batchId(batchId)
+                    .status(status)
+                    .lines(lines)
+                    .succeeded(succeeded)
+                    .rejected(rejected)
+                    .failed(failed)
+                    .totalDebited(debited)
+                    .build();
+        }
+    }
+
+    // Running balance and ledger seq of one account while a chunk's rows are built
+    private static final class Running {
+        private BigDecimal balance;
+        private long seq;
+
+        private Running(BigDecimal balance, long seq) {
+            this.balance = balance;
+            this.seq = seq;
+        }
+    }
+
+    // Lines after the first {@code skip}, which a previous submission settled
+    private List<Line> resolve(Long senderId, List<TransferRequest> requests, int skip) {
+        Set<String> numbers = new LinkedHashSet<>();
+        for (TransferRequest request : requests.subList(skip, requests.size())) {
+            if (request != null && request.getReceiverAccountNumber() != null)
+                numbers.add(request.getReceiverAccountNumber());
+        }
+
+        Map<String, TransferTarget> targets = new HashMap<>();
+        List<String> pending = new ArrayList<>(numbers);
+        for (int from = 0; from < pending.size(); from += IN_LIST_SIZE) {
+            for (TransferTarget target : accountRepository.findTransferTargets(
+                    pending.subList(from, Math.min(from + IN_LIST_SIZE, pending.size()))))
+                targets.put(target.accountNumber(), target);
+        }
+
+        List<Line> lines = new ArrayList<>(requests.size() - skip);
+        for (int i = skip; i < requests.size(); i++) {
+            TransferRequest request = requests.get(i);
+            String number = request == null ? null : request.getReceiverAccountNumber();
+            BigDecimal amount = request == null ? null : request.getAmount();
+            TransferTarget target = number == null ? null : targets.get(number);
+
+            String error = null;
+            if (number == null || number.isBlank() || amount == null || amount.signum() <= 0)
+                error = "Receiver account number and a positive amount are required";
+            else if (target == null)
+                error = "Receiver account not found";
+            else if (target.status() != KycStatus.AccountStatus.ACTIVE)
+                error = "Receiver account inactive";
+            else if (target.accountId().equals(senderId))
+                error = "Cannot transfer to same account";
+
+            lines.add(new Line(i + 1, number, amount,
+                    error == null ? target.accountId() : null, error));
+        }
+        return lines;
+    }
+
+    private void checkSender(Long senderId, BigDecimal total) {
+        if (!accountRepository.existsByIdAndStatus(senderId, KycStatus.AccountStatus.ACTIVE))
+            throw new AccountNotActiveException("Sender account inactive");
+
+        BalancePosition sender = accountRepository.findPositionById(senderId)
+                .orElseThrow(() -> new AccountNotFoundException("Sender account not found"));
+        if (balanceService.totalBalance(senderId, sender.balance()).compareTo(total) < 0)
+            throw new InsufficientBalanceException("Insufficient balance");
+    }
+
+    private void applyWithRetry(Runnable work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> work.run());
+                return;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= maxAttempts)
+                    throw e;
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void applyChunk(Long senderId, List<Line> lines) {
+        BigDecimal total = BigDecimal.ZERO;
+        Map<Long, BigDecimal> credits = new TreeMap<>();
+        Map<Long, Integer> entries = new HashMap<>();
+        for (Line line : lines) {
+            total = total.add(line.amount());
+            credits.merge(line.receiverId(), line.amount(), BigDecimal::add);
+            entries.merge(line.receiverId(), 1, Integer::sum);
+        }
+
+        // Ascending id order across the sender and every receiver, as in
+        // TransferService, so chunks and single transfers never deadlock.
+        List<Object[]> below = new ArrayList<>();
+        List<Object[]> above = new ArrayList<>();
+        credits.forEach((receiverId, amount) ->
+                (receiverId < senderId ? below : above)
+                        .add(new Object[]{amount, entries.get(receiverId), receiverId}));
+        creditReceivers(below);
+        debitSender(senderId, total, lines.size());
+        creditReceivers(above);
+
+        // Positions after the chunk, rewound to before it: each line then
+        // takes the next seq and running balance of both of its accounts.
+        List<Long> ids = new ArrayList<>(credits.keySet());
+        ids.add(senderId);
+        Map<Long, Running> running = new HashMap<>();
+        for (AccountPosition position : accountRepository.findPositionsByIdIn(ids)) {
+            Long id = position.accountId();
+            boolean sender = id.equals(senderId);
+            BigDecimal change = sender ? total.negate() : credits.get(id);
+            int count = sender ? lines.size() : entries.get(id);
+            running.put(id, new Running(
+                    balanceService.totalBalance(id, position.balance()).subtract(change),
+                    position.seq() - count));
+        }
+
+        Running sender = running.get(senderId);
+        Account senderRef = accountRepository.getReferenceById(senderId);
+        List<Transaction> transactions = new ArrayList<>(lines.size() * 2);
+        for (Line line : lines) {
+            BigDecimal amount = line.amount();
+            Running receiver = running.get(line.receiverId());
+
+            BigDecimal senderBefore = sender.balance;
+            sender.balance = senderBefore.subtract(amount);
+            sender.seq++;
+            BigDecimal receiverBefore = receiver.balance;
+            receiver.balance = receiverBefore.add(amount);
+            receiver.seq++;
+
+            ledgerService.post(TransactionType.TRANSFER,
+                    LedgerService.Leg.customer(senderId, sender.seq, amount.negate()),
+                    LedgerService.Leg.customer(line.receiverId(), receiver.seq, amount));
+
+            transactions.add(TransactionTransformer.transferDebit(
+                    senderRef, amount, senderBefore, sender.balance, TransactionStatus.SUCCESS));
+            transactions.add(TransactionTransformer.transferCredit(
+                    accountRepository.getReferenceById(line.receiverId()), amount, receiverBefore, receiver.balance));
+        }
+        transactionRepository.saveAll(transactions);
+    }
+
+    private Batch startBatch(Long senderId, String batchId, String requestHash) {
+        jdbcTemplate.update("insert into bulk_transfer_batches (account_id, batch_id, request_hash, status, " +
+                        "checkpoint_line, succeeded, rejected, failed, total_debited, updated_at) " +
+                        "select ?, ?, ?, ?, 0, 0, 0, 0, 0, ? from (select 1 as one) seed " +
+                        "where not exists (select 1 from bulk_transfer_batches where account_id = ? and batch_id = ?)",
+                senderId, batchId, requestHash, BulkTransferBatchStatus.IN_PROGRESS.name(),
+                Timestamp.valueOf(LocalDateTime.now()), senderId, batchId);
+        return jdbcTemplate.queryForObject("select request_hash, status, checkpoint_line, succeeded, rejected, " +
+                        "failed, total_debited from bulk_transfer_batches where account_id = ? and batch_id = ?",
+                (rs, rowNum) -> new Batch(senderId, batchId, rs.getString("request_hash"),
+                        BulkTransferBatchStatus.valueOf(rs.getString("status")), rs.getInt("checkpoint_line"),
+                        rs.getInt("succeeded"), rs.getInt("rejected"), rs.getInt("failed"),
+                        rs.getBigDecimal("total_debited")),
+                senderId, batchId);
+    }
+
+    private void advance(Batch batch, int lastLine, int succeeded, int rejected, int failed, BigDecimal debited) {
+        int advanced = jdbcTemplate.update("update bulk_transfer_batches set checkpoint_line = ?, " +
+                        "succeeded = succeeded + ?, rejected = rejected + ?, failed = failed + ?, " +
+                        "total_debited = total_debited + ?, updated_at = ? " +
+                        "where account_id = ? and batch_id = ? and checkpoint_line = ?",
+                lastLine, succeeded, rejected, failed, debited, Timestamp.valueOf(LocalDateTime.now()),
+                batch.senderId, batch.batchId, batch.checkpointLine);
+        if (advanced != 1)
+            throw new DuplicateResourceException("Batch " + batch.batchId + " was advanced by another run");
+    }
+
+    private void complete(Batch batch) {
+        jdbcTemplate.update("update bulk_transfer_batches set status = ?, updated_at = ? " +
+                        "where account_id = ? and batch_id = ?",
+                BulkTransferBatchStatus.COMPLETED.name(), Timestamp.valueOf(LocalDateTime.now()),
+                batch.senderId, batch.batchId);
+        batch.status = BulkTransferBatchStatus.COMPLETED;
+    }
+
+    // Of the lines' content only, so the same batch as JSON or CSV is the same batch
+    private static String hash(List<TransferRequest> requests) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (TransferRequest request : requests) {
+                String number = request == null ? null : request.getReceiverAccountNumber();
+                BigDecimal amount = request == null ? null : request.getAmount();
+                String line = number + "," + (amount == null ? null : amount.stripTrailingZeros().toPlainString()) + "\n";
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void debitSender(Long senderId, BigDecimal total, int entries) {
+        if (accountRepository.debitManyIfActive(senderId, total, entries) == 1)
+            return;
+        // A hot sender's credits may be sitting in its slots
+        if (balanceService.sweep(senderId) && accountRepository.debitManyIfActive(senderId, total, entries) == 1)
+            return;
+
+        if (!accountRepository.existsByIdAndStatus(senderId, KycStatus.AccountStatus.ACTIVE))
+            throw new AccountNotActiveException("Sender account inactive");
+        throw new InsufficientBalanceException("Insufficient balance");
+    }
+
+    private void creditReceivers(List<Object[]> credits) {
+        if (credits.isEmpty())
+            return;
+        // A 0 count is a receiver deactivated since resolve(); SUCCESS_NO_INFO
+        // (-2) from a driver that rewrites the batch is fine.
+        for (int updated : jdbcTemplate.batchUpdate(CREDIT_SQL, credits)) {
+            if (updated == 0)
+                throw new ReceiverRejectedException("Receiver account inactive");
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying transfer", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker plus bulkhead around calls to a remote dependency.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the circuit opens and
+ * calls fail fast for {@code openDuration}; then a single trial call is let
+ * through and its outcome closes or re-opens the circuit. Independently, at
+ * most {@code maxConcurrentCalls} calls run at once and the rest are rejected
+ * immediately, so a slow dependency cannot hold every request thread.
+ * Only exceptions of {@code failureType} count as failures: a rejected
+ * request (4xx) says nothing about the health of the remote side.
+ * <p>
+ * Lock-free on purpose: callers may be virtual threads.
+ */
+public class CircuitBreaker {
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Semaphore bulkhead;
+    private final Class<? extends RuntimeException> failureType;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // 0 while closed; otherwise the nanoTime the circuit opened at
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration, int maxConcurrentCalls,
+                          Class<? extends RuntimeException> failureType) {
+        this(name, failureThreshold, openDuration, maxConcurrentCalls, failureType, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, int maxConcurrentCalls,
+                   Class<? extends RuntimeException> failureType, LongSupplier nanoClock) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.failureType = failureType;
+        this.nanoClock = nanoClock;
+    }
+
+    public <T> T execute(Supplier<T> call) {
+        boolean trial = admit();
+
+        if (!bulkhead.tryAcquire()) {
+            if (trial)
+                trialInFlight.set(false);
+            throw new ServiceUnavailableException(name + " is busy, try again shortly");
+        }
+        try {
+            T result = call.get();
+            onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (failureType.isInstance(e))
+                onFailure();
+            else if (trial)
+                onSuccess();
+            throw e;
+        } finally {
+            bulkhead.release();
+            if (trial)
+                trialInFlight.set(false);
+        }
+    }
+
+    public boolean isOpen() {
+        return openedAt.get() != 0;
+    }
+
+    // Returns true when this call is the half-open trial.
+    private boolean admit() {
+        long opened = openedAt.get();
+        if (opened == 0)
+            return false;
+
+        if (nanoClock.getAsLong() - opened >= openNanos && trialInFlight.compareAndSet(false, true))
+            return true;
+
+        throw new ServiceUnavailableException(name + " is unavailable, try again shortly");
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(0);
+    }
+
+    private void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold || isOpen())
+            openedAt.set(Math.max(nanoClock.getAsLong(), 1));
+    }
+}
@@ -2,18 +2,14 @@ package com.bank.banking_app.service;
 
 import com.bank.banking_app.Transformer.TransactionTransformer;
 import com.bank.banking_app.dto.request.DepositRequest;
-import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.LedgerBook;
+import com.bank.banking_app.enums.TransactionType;
 import com.bank.banking_app.exception.AccountNotActiveException;
-import com.bank.banking_app.exception.AccountNotFoundException;
-import com.bank.banking_app.exception.InvalidCredentialsException;
-import com.bank.banking_app.models.Account;
 import com.bank.banking_app.models.Transaction;
-import com.bank.banking_app.models.Users;
 import com.bank.banking_app.repository.AccountRepository;
 import com.bank.banking_app.repository.TransactionRepository;
-import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.AccountPrincipalCache;
 import jakarta.transaction.Transactional;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -21,45 +17,48 @@ import java.math.BigDecimal;
 @Service
 public class DepositService {
 
-    private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final AccountPrincipalCache principalCache;
+    private final LedgerService ledgerService;
+    private final AccountBalanceService balanceService;
 
-    public DepositService(UserRepository userRepository,
-                          AccountRepository accountRepository,
-                          TransactionRepository transactionRepository) {
-        this.userRepository = userRepository;
+    public DepositService(AccountRepository accountRepository,
+                          TransactionRepository transactionRepository,
+                          AccountPrincipalCache principalCache,
+                          LedgerService ledgerService,
+                          AccountBalanceService balanceService) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.principalCache = principalCache;
+        this.ledgerService = ledgerService;
+        this.balanceService = balanceService;
     }
 
     @Transactional
     public void deposit(DepositRequest request) {
+        credit(principalCache.current().accountId(), request.getAmount(), LedgerBook.CASH);
+    }
 
-        String email = SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getName();
-
-        Users user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
-
-        Account account = accountRepository.findByUser(user)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
-
-        if (account.getStatus() != KycStatus.AccountStatus.ACTIVE)
-            throw new AccountNotActiveException("Account is not active");
+    // Credits a given account and records the deposit, with the money coming
+    // from the source book; joins the caller's transaction, so callers can make
+    // the credit atomic with their own writes.
+    @Transactional
+    public void credit(Long accountId, BigDecimal amount, LedgerBook source) {
 
-        BigDecimal balanceBefore = account.getBalance();
-        BigDecimal balanceAfter = balanceBefore.add(request.getAmount());
+        AccountBalanceService.Credit credit = balanceService.credit(accountId, amount)
+                .orElseThrow(() -> new AccountNotActiveException("Account is not active"));
+        BigDecimal balanceAfter = credit.balanceAfter();
+        BigDecimal balanceBefore = balanceAfter.subtract(amount);
 
-        account.setBalance(balanceAfter);
-        accountRepository.save(account);
+        ledgerService.post(TransactionType.DEPOSIT,
+                credit.leg(),
+                LedgerService.Leg.external(source, amount.negate()));
 
         Transaction transaction =
                 TransactionTransformer.depositTransaction(
-                        account,
-                        request.getAmount(),
+                        accountRepository.getReferenceById(accountId),
+                        amount,
                         balanceBefore,
                         balanceAfter
                 );
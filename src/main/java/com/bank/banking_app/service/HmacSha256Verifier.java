@@ -0,0 +1,167 @@
+package com.bank.banking_app.service;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Checks hex HMAC-SHA256 signatures, as Razorpay sends on checkout callbacks
+ * and webhooks, without allocating once warm.
+ * <p>
+ * Keyed Macs are kept in a small lock-free pool rather than a ThreadLocal:
+ * requests run on virtual threads, one per request, so a ThreadLocal Mac
+ * would be built and thrown away on every call. Each pooled slot carries the
+ * scratch buffers for the message, the computed MAC and the decoded
+ * signature, which is compared with MessageDigest.isEqual (constant time).
+ */
+public class HmacSha256Verifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    private static final int SCRATCH_LENGTH = 256;
+
+    private final Mac prototype;
+    private final AtomicReferenceArray<Slot> pool;
+
+    public HmacSha256Verifier(String secret, int poolSize) {
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " unavailable", e);
+        }
+        this.pool = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, poolSize) * 2 - 1));
+    }
+
+    /**
+     * Verifies a signature over {@code first + "|" + second}, the checkout
+     * callback format, without building the joined string.
+     */
+    public boolean verify(String first, String second, String hexSignature) {
+        if (first == null || second == null)
+            return false;
+        Slot slot = acquire();
+        try {
+            int length = slot.ascii(first, 0);
+            length = length < 0 ? -1 : slot.put((byte) '|', length);
+            length = length < 0 ? -1 : slot.ascii(second, length);
+            if (length >= 0) {
+                slot.mac.update(slot.message, 0, length);
+            } else {
+                // Non-ASCII or oversized ids: rare enough to take the allocating path
+                slot.mac.update((first + "|" + second).getBytes(StandardCharsets.UTF_8));
+            }
+            return slot.matches(hexSignature);
+        } finally {
+            release(slot);
+        }
+    }
+
+    public boolean verify(byte[] message, String hexSignature) {
+        Slot slot = acquire();
+        try {
+            slot.mac.update(message);
+            return slot.matches(hexSignature);
+        } finally {
+            release(slot);
+        }
+    }
+
+    private Slot acquire() {
+        int mask = pool.length() - 1;
+        int start = (int) Thread.currentThread().threadId() & mask;
+        for (int i = 0; i <= mask; i++) {
+            Slot slot = pool.getAndSet((start + i) & mask, null);
+            if (slot != null)
+                return slot;
+        }
+        // More callers than slots: this one is simply not pooled afterwards
+        return new Slot(newMac());
+    }
+
+    private void release(Slot slot) {
+        slot.mac.reset();
+        int mask = pool.length() - 1;
+        int start = (int) Thread.currentThread().threadId() & mask;
+        for (int i = 0; i <= mask; i++) {
+            if (pool.compareAndSet((start + i) & mask, null, slot))
+                return;
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " Mac is not cloneable", e);
+        }
+    }
+
+    private static final class Slot {
+        private final Mac mac;
+        private final byte[] message = new byte[SCRATCH_LENGTH];
+        private final byte[] computed = new byte[MAC_LENGTH];
+        private final byte[] presented = new byte[MAC_LENGTH];
+
+        private Slot(Mac mac) {
+            this.mac = mac;
+        }
+
+        // Copies an ASCII string into the message buffer; -1 if it does not fit or is not ASCII.
+        private int ascii(String value, int offset) {
+            int length = value.length();
+            if (offset + length > message.length)
+                return -1;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c > 0x7F)
+                    return -1;
+                message[offset + i] = (byte) c;
+            }
+            return offset + length;
+        }
+
+        private int put(byte b, int offset) {
+            if (offset >= message.length)
+                return -1;
+            message[offset] = b;
+            return offset + 1;
+        }
+
+        private boolean matches(String hexSignature) {
+            try {
+                mac.doFinal(computed, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            return decodeHex(hexSignature, presented) && MessageDigest.isEqual(computed, presented);
+        }
+
+        private static boolean decodeHex(String hex, byte[] into) {
+            if (hex == null || hex.length() != into.length * 2)
+                return false;
+            for (int i = 0; i < into.length; i++) {
+                int high = hexValue(hex.charAt(2 * i));
+                int low = hexValue(hex.charAt(2 * i + 1));
+                if (high < 0 || low < 0)
+                    return false;
+                into[i] = (byte) ((high << 4) | low);
+            }
+            return true;
+        }
+
+        private static int hexValue(char c) {
+            if (c >= '0' && c <= '9')
+                return c - '0';
+            if (c >= 'a' && c <= 'f')
+                return c - 'a' + 10;
+            if (c >= 'A' && c <= 'F')
+                return c - 'A' + 10;
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.IdempotencyStatus;
+import com.bank.banking_app.models.IdempotencyRecord;
+import com.bank.banking_app.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Result store behind IdempotencyFilter. Completed responses live in a
+ * bounded in-memory cache, so a retry on the same instance is answered
+ * without touching the database; the idempotency_keys table makes claims
+ * visible across instances and restarts. Both expire after the same TTL.
+ * <p>
+ * Every database call runs in its own short transaction: a claim must be
+ * committed before the guarded request starts, and must survive that
+ * request's rollback.
+ */
+@Service
+public class IdempotencyService {
+
+    public enum Decision {
+        // Key claimed: run the request, then complete() or release()
+        PROCEED,
+        // Same request already completed: answer with the stored response
+        REPLAY,
+        // Same key still running elsewhere
+        IN_PROGRESS,
+        // Key already used for a different request
+        MISMATCH
+    }
+
+    public record StoredResponse(String requestHash, int status, String contentType, String body) {
+    }
+
+    public record Outcome(Decision decision, StoredResponse response) {
+        static Outcome of(Decision decision) {
+            return new Outcome(decision, null);
+        }
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> completed;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${banking.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${banking.idempotency.cache-size:100000}") long cacheSize) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Outcome begin(Long userId, String key, String requestHash) {
+        StoredResponse cached = completed.getIfPresent(cacheKey(userId, key));
+        if (cached != null)
+            return replayOrMismatch(cached, requestHash);
+
+        // Two rounds at most: the second follows the removal of an expired row.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (claim(userId, key, requestHash))
+                return Outcome.of(Decision.PROCEED);
+
+            Optional<IdempotencyRecord> existing = requiresNew.execute(status ->
+                    repository.findByUserIdAndIdempotencyKey(userId, key));
+            if (existing.isEmpty())
+                continue;
+
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(LocalDateTime.now())) {
+                requiresNew.executeWithoutResult(status -> repository.delete(record));
+                continue;
+            }
+            if (record.getStatus() == IdempotencyStatus.IN_PROGRESS)
+                return record.getRequestHash().equals(requestHash)
+                        ? Outcome.of(Decision.IN_PROGRESS)
+                        : Outcome.of(Decision.MISMATCH);
+
+            StoredResponse stored = new StoredResponse(record.getRequestHash(), record.getResponseStatus(),
+                    record.getResponseContentType(), record.getResponseBody());
+            completed.put(cacheKey(userId, key), stored);
+            return replayOrMismatch(stored, requestHash);
+        }
+        return Outcome.of(Decision.IN_PROGRESS);
+    }
+
+    public void complete(Long userId, String key, StoredResponse response) {
+        requiresNew.executeWithoutResult(status -> repository.complete(userId, key, IdempotencyStatus.COMPLETED,
+                response.status(), response.contentType(), response.body()));
+        completed.put(cacheKey(userId, key), response);
+    }
+
+    // Drops the claim of a request that failed without a storable outcome,
+    // so the client's retry runs it again.
+    public void release(Long userId, String key) {
+        requiresNew.executeWithoutResult(status -> repository.deleteByUserIdAndIdempotencyKey(userId, key));
+    }
+
+    @Scheduled(initialDelayString = "${banking.idempotency.purge-interval:PT1H}",
+            fixedDelayString = "${banking.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        requiresNew.executeWithoutResult(status -> repository.deleteExpired(LocalDateTime.now()));
+    }
+
+    private boolean claim(Long userId, String key, String requestHash) {
+        try {
+            requiresNew.executeWithoutResult(status -> repository.saveAndFlush(IdempotencyRecord.builder()
+                    .userId(userId)
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .status(IdempotencyStatus.IN_PROGRESS)
+                    .expiresAt(LocalDateTime.now().plus(ttl))
+                    .build()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private static Outcome replayOrMismatch(StoredResponse stored, String requestHash) {
+        return stored.requestHash().equals(requestHash)
+                ? new Outcome(Decision.REPLAY, stored)
+                : Outcome.of(Decision.MISMATCH);
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+}
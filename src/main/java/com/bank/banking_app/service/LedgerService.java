@@ -0,0 +1,207 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.LedgerBook;
+import com.bank.banking_app.enums.TransactionType;
+import com.bank.banking_app.exception.AccountNotFoundException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.AccountBalanceSlot;
+import com.bank.banking_app.models.BalanceSnapshot;
+import com.bank.banking_app.models.LedgerEntry;
+import com.bank.banking_app.repository.AccountBalanceSlotRepository;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalancePosition;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Append-only double-entry ledger behind every balance change.
+ * <p>
+ * Services change Account.balance with a conditional UPDATE, which also
+ * hands out the account's next ledger seq, and post the matching journal
+ * here in the same transaction. The ledger is the record; Account.balance is
+ * its running projection, kept because the no-overdraft check needs one row
+ * to lock. rebuildBalance() recomputes a balance from the ledger alone,
+ * starting at the account's latest snapshot.
+ */
+@Service
+public class LedgerService {
+
+    public record Leg(LedgerBook book, Long accountId, int slot, Long seq, BigDecimal amount) {
+
+        // Entry on the accounts row itself (slot 0)
+        public static Leg customer(Long accountId, long seq, BigDecimal amount) {
+            return new Leg(LedgerBook.CUSTOMER, accountId, 0, seq, amount);
+        }
+
+        // Entry on one of a hot account's AccountBalanceSlot rows
+        public static Leg customerSlot(Long accountId, int slot, long seq, BigDecimal amount) {
+            return new Leg(LedgerBook.CUSTOMER, accountId, slot, seq, amount);
+        }
+
+        public static Leg external(LedgerBook book, BigDecimal amount) {
+            return new Leg(book, null, 0, null, amount);
+        }
+    }
+
+    private final LedgerEntryRepository entryRepository;
+    private final BalanceSnapshotRepository snapshotRepository;
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long snapshotMinEntries;
+    private final int snapshotBatchSize;
+
+    public LedgerService(LedgerEntryRepository entryRepository,
+                         BalanceSnapshotRepository snapshotRepository,
+                         AccountRepository accountRepository,
+                         AccountBalanceSlotRepository slotRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${banking.ledger.snapshot-min-entries:100}") long snapshotMinEntries,
+                         @Value("${banking.ledger.snapshot-batch-size:500}") int snapshotBatchSize) {
+        this.entryRepository = entryRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotMinEntries = snapshotMinEntries;
+        this.snapshotBatchSize = snapshotBatchSize;
+    }
+
+    /**
+     * Writes one balanced journal. Must run in the transaction whose balance
+     * UPDATEs handed out the CUSTOMER legs' seqs.
+     *
+     * @return the journal id shared by the legs
+     */
+    @Transactional
+    public String post(TransactionType type, Leg... legs) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Leg leg : legs)
+            total = total.add(leg.amount());
+        if (total.signum() != 0)
+            throw new IllegalArgumentException("Unbalanced journal: legs sum to " + total);
+
+        String journalId = UUID.randomUUID().toString();
+        List<LedgerEntry> entries = new ArrayList<>(legs.length);
+        for (Leg leg : legs) {
+            entries.add(LedgerEntry.builder()
+                    .journalId(journalId)
+                    .entryType(type)
+                    .book(leg.book())
+                    .accountId(leg.accountId())
+                    .slot(leg.slot())
+                    .seq(leg.seq())
+                    .amount(leg.amount())
+                    .build());
+        }
+        entryRepository.saveAll(entries);
+        return journalId;
+    }
+
+    // Opening deposit of a new account, inserted with ledgerSeq 1.
+    @Transactional
+    public void recordOpening(Account account) {
+        post(TransactionType.DEPOSIT,
+                Leg.customer(account.getId(), account.getLedgerSeq(), account.getBalance()),
+                Leg.external(LedgerBook.CASH, account.getBalance().negate()));
+    }
+
+    /**
+     * The account's balance computed from the ledger: for each slot, its
+     * latest snapshot plus the entries after it. Agrees with Account.balance
+     * (plus the slots of a hot account) unless one of them was changed
+     * outside the services.
+     */
+    @Transactional
+    public BigDecimal rebuildBalance(Long accountId) {
+        if (!accountRepository.existsById(accountId))
+            throw new AccountNotFoundException("Account not found");
+
+        BigDecimal balance = BigDecimal.ZERO;
+        for (BalancePosition position : positionsFromLedger(accountId).values())
+            balance = balance.add(position.balance());
+        return balance;
+    }
+
+    /**
+     * Snapshots every account with a slot that has gathered
+     * snapshot-min-entries entries since its last snapshot, one short
+     * transaction per account.
+     *
+     * @return the number of accounts snapshotted
+     */
+    @Scheduled(initialDelayString = "${banking.ledger.snapshot-interval:PT10M}",
+            fixedDelayString = "${banking.ledger.snapshot-interval:PT10M}")
+    public int takeSnapshots() {
+        int taken = 0;
+        long afterId = 0;
+        boolean more;
+        do {
+            long from = afterId;
+            TreeSet<Long> due = new TreeSet<>();
+            List<Long> plain = transactionTemplate.execute(status -> snapshotRepository
+                    .findAccountsDueForSnapshot(from, snapshotMinEntries, Limit.of(snapshotBatchSize)));
+            List<Long> slotted = transactionTemplate.execute(status -> snapshotRepository
+                    .findSlottedAccountsDueForSnapshot(from, snapshotMinEntries, Limit.of(snapshotBatchSize)));
+            due.addAll(plain);
+            due.addAll(slotted);
+
+            // Only ids below both lists' ends are complete in this round.
+            more = plain.size() == snapshotBatchSize || slotted.size() == snapshotBatchSize;
+            long upTo = Math.min(
+                    plain.size() == snapshotBatchSize ? plain.getLast() : Long.MAX_VALUE,
+                    slotted.size() == snapshotBatchSize ? slotted.getLast() : Long.MAX_VALUE);
+            for (Long accountId : due.headSet(upTo, true)) {
+                transactionTemplate.executeWithoutResult(status -> snapshot(accountId));
+                taken++;
+                afterId = accountId;
+            }
+        } while (more);
+        return taken;
+    }
+
+    @Transactional
+    public void snapshot(Long accountId) {
+        LocalDateTime now = LocalDateTime.now();
+        positionsFromLedger(accountId).forEach((slot, position) ->
+                snapshotRepository.save(BalanceSnapshot.builder()
+                        .accountId(accountId)
+                        .slot(slot)
+                        .balance(position.balance())
+                        .seq(position.seq())
+                        .takenAt(now)
+                        .build()));
+    }
+
+    private Map<Integer, BalancePosition> positionsFromLedger(Long accountId) {
+        Map<Integer, BalancePosition> bases = new TreeMap<>();
+        bases.put(0, new BalancePosition(BigDecimal.ZERO, 0));
+        for (AccountBalanceSlot slot : slotRepository.findByAccountId(accountId))
+            bases.put(slot.getSlot(), new BalancePosition(BigDecimal.ZERO, 0));
+        for (BalanceSnapshot snapshot : snapshotRepository.findByAccountId(accountId))
+            bases.put(snapshot.getSlot(), new BalancePosition(snapshot.getBalance(), snapshot.getSeq()));
+
+        Map<Integer, BalancePosition> positions = new TreeMap<>();
+        bases.forEach((slot, base) -> {
+            BalancePosition since = entryRepository.sumAfter(accountId, slot, base.seq());
+            positions.put(slot, new BalancePosition(base.balance().add(since.balance()), since.seq()));
+        });
+        return positions;
+    }
+}
@@ -3,37 +3,35 @@ package com.bank.banking_app.service;
 import com.bank.banking_app.Transformer.MeTransformer;
 import com.bank.banking_app.dto.response.MeResponse;
 import com.bank.banking_app.exception.AccountNotFoundException;
-import com.bank.banking_app.exception.InvalidCredentialsException;
-import com.bank.banking_app.models.Account;
-import com.bank.banking_app.models.Users;
 import com.bank.banking_app.repository.AccountRepository;
-import com.bank.banking_app.repository.UserRepository;
-import org.springframework.security.core.context.SecurityContextHolder;
+import com.bank.banking_app.repository.ProfileView;
+import com.bank.banking_app.security.AccountPrincipalCache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class MeService {
-    private final UserRepository userRepository;
     private final AccountRepository accountRepository;
+    private final AccountPrincipalCache principalCache;
+    private final AccountBalanceService balanceService;
 
-    public MeService(UserRepository userRepository,
-                     AccountRepository accountRepository) {
-        this.userRepository = userRepository;
+    public MeService(AccountRepository accountRepository,
+                     AccountPrincipalCache principalCache,
+                     AccountBalanceService balanceService) {
         this.accountRepository = accountRepository;
+        this.principalCache = principalCache;
+        this.balanceService = balanceService;
     }
-    public MeResponse me() {
 
-        String email = SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getName();
+    @Transactional(readOnly = true)
+    public MeResponse me() {
 
-        Users user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
+        Long accountId = principalCache.current().accountId();
 
-        Account account = accountRepository.findByUser(user)
+        ProfileView profile = accountRepository.findProfileById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found"));
 
-        return MeTransformer.userAndAccountToMeResponse(user, account);
+        return MeTransformer.profileToMeResponse(profile,
+                balanceService.totalBalance(accountId, profile.balance()));
     }
 }
@@ -12,8 +12,14 @@ import com.bank.banking_app.repository.AccountRepository;
 import com.bank.banking_app.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -21,42 +27,60 @@ public class OpenAccountService {
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LedgerService ledgerService;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional
     public OpenAccountResponse openAccount(OpenAccountRequest request){
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new BadRequestException("Email already exists");
-        }
-
-        if (userRepository.existsByPhone(request.getPhone())) {
-            throw new BadRequestException("Phone already exists");
-        }
-
-        if (userRepository.existsByAadhaarNumber(request.getAadhaarNumber())) {
-            throw new BadRequestException("Aadhaar already exists");
-        }
-
-        if (userRepository.existsByPanCardNumber(request.getPanCardNumber())) {
-            throw new BadRequestException("PAN already exists");
+        String duplicate = duplicateMessage(takenIdentifiers(request));
+        if (duplicate != null) {
+            throw new BadRequestException(duplicate);
         }
         Users user = UserTransformer.accountRequestToUser(request,passwordEncoder);
-        Users savedUser = userRepository.save(user);
+        // A sign-up racing this one past the check is stopped by the unique
+        // constraints; flush now so that surfaces here with the same message.
+        Users savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateOf(request, e);
+        }
 
         Account account = AccountTransformer.accountRequestToAccount(
-                generateAccountNumber(),
+                accountNumberAllocator.next(),
                 request.getAccountType(),
                 request.getInitialDeposit(),
                 KycStatus.AccountStatus.ACTIVE,
                 savedUser
         );
         Account savedAccount = accountRepository.save(account);
+        ledgerService.recordOpening(savedAccount);
 
         return AccountTransformer.accountToAccountResponse(savedAccount);
 }
 
-    private String generateAccountNumber() {
-        return String.valueOf(
-                100000000000L + (long) (Math.random() * 900000000000L)
-        );
+    // The unique key names differ between databases built by V1 and ones
+    // adopted from ddl-auto, so the identifier that lost the race is found by
+    // checking again, in a new transaction (this one is rollback-only) that
+    // sees the winner's commit.
+    private RuntimeException duplicateOf(OpenAccountRequest request, DataIntegrityViolationException e) {
+        TransactionTemplate recheck = new TransactionTemplate(transactionManager);
+        recheck.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        String duplicate = duplicateMessage(recheck.execute(status -> takenIdentifiers(request)));
+        return duplicate != null ? new BadRequestException(duplicate) : e;
+    }
+
+    private List<String> takenIdentifiers(OpenAccountRequest request) {
+        return userRepository.findTakenIdentifiers(request.getEmail(), request.getPhone(),
+                request.getAadhaarNumber(), request.getPanCardNumber());
+    }
+
+    private static String duplicateMessage(List<String> taken) {
+        return taken.contains("email") ? "Email already exists"
+                : taken.contains("phone") ? "Phone already exists"
+                : taken.contains("aadhaar") ? "Aadhaar already exists"
+                : taken.contains("pan") ? "PAN already exists"
+                : null;
     }
 }
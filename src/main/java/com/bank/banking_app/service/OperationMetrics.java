@@ -0,0 +1,78 @@
+package com.bank.banking_app.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Latency, throughput and failure reasons for the money-movement endpoints.
+ * <p>
+ * Each call is timed into {@code banking.operation}, tagged with the
+ * operation and its outcome: "success", or the reason it failed taken from
+ * the exception (InsufficientBalanceException -> insufficient_balance).
+ * Only this app's own exceptions name a reason and anything else is
+ * "error", so the tag stays bounded. The timers publish a percentile
+ * histogram; their count is the throughput.
+ * <p>
+ * Callers time the whole service call, so a @Transactional service's commit
+ * is included.
+ */
+@Component
+public class OperationMetrics {
+
+    static final String TIMER = "banking.operation";
+    private static final String EXCEPTION_PACKAGE = "com.bank.banking_app.exception";
+
+    private final MeterRegistry registry;
+
+    public OperationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void record(String operation, Runnable call) {
+        record(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public <T> T record(String operation, Supplier<T> call) {
+        return record(operation, call, result -> "success");
+    }
+
+    // For calls that report some failures as a result rather than an exception
+    public <T> T record(String operation, Supplier<T> call, Function<T, String> outcome) {
+        Timer.Sample sample = Timer.start(registry);
+        T result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            sample.stop(timer(operation, reasonOf(e)));
+            throw e;
+        }
+        sample.stop(timer(operation, outcome.apply(result)));
+        return result;
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder(TIMER)
+                .description("Money-movement calls, by operation and outcome")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    // AccountNotActiveException -> account_not_active
+    static String reasonOf(Throwable e) {
+        Class<?> type = e.getClass();
+        if (!EXCEPTION_PACKAGE.equals(type.getPackageName()))
+            return "error";
+        String name = type.getSimpleName().replaceFirst("Exception$", "");
+        return name.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
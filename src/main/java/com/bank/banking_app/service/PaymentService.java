@@ -0,0 +1,82 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.dto.request.PaymentVerifyRequest;
+import com.bank.banking_app.enums.LedgerBook;
+import com.bank.banking_app.enums.PaymentStatus;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.models.Payment;
+import com.bank.banking_app.repository.PaymentRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PaymentService {
+
+    public enum VerifyResult {
+        // This call moved the payment to SUCCESS and credited the account
+        CREDITED,
+        // An earlier call already did; nothing was credited this time
+        ALREADY_CREDITED,
+        // Signature did not match
+        REJECTED
+    }
+
+    private final PaymentRepository paymentRepository;
+    private final RazorpayService razorpayService;
+    private final DepositService depositService;
+
+    public PaymentService(PaymentRepository paymentRepository,
+                          RazorpayService razorpayService,
+                          DepositService depositService) {
+        this.paymentRepository = paymentRepository;
+        this.razorpayService = razorpayService;
+        this.depositService = depositService;
+    }
+
+    /**
+     * Verifies a checkout callback and credits the payment's account exactly
+     * once. The move to SUCCESS and the credit commit or roll back
+     * together, and concurrent verifies of one order are serialised by the
+     * conditional UPDATE: only the caller that changed the row credits.
+     */
+    @Transactional
+    public VerifyResult verify(PaymentVerifyRequest request) {
+        String orderId = request.getRazorpayOrderId();
+
+        boolean valid = razorpayService.verifySignature(
+                orderId,
+                request.getRazorpayPaymentId(),
+                request.getRazorpaySignature());
+
+        // A forged or garbled callback says nothing about the payment itself:
+        // leave it as it is, so a genuine verify or webhook can still credit it.
+        if (!valid)
+            return VerifyResult.REJECTED;
+
+        return settle(orderId, request.getRazorpayPaymentId(), request.getRazorpaySignature());
+    }
+
+    // Same transition for a payment.captured / order.paid webhook, whose
+    // signature was checked over the whole event at ingestion.
+    @Transactional
+    public VerifyResult capture(String orderId, String paymentId) {
+        return settle(orderId, paymentId, null);
+    }
+
+    private VerifyResult settle(String orderId, String paymentId, String signature) {
+        int transitioned = paymentRepository.markSucceeded(orderId, paymentId, signature);
+
+        Payment payment = paymentRepository.findByRazorpayOrderId(orderId)
+                .orElseThrow(() -> new BadRequestException("Payment not found"));
+
+        if (transitioned == 0) {
+            if (payment.getStatus() == PaymentStatus.SUCCESS)
+                return VerifyResult.ALREADY_CREDITED;
+            throw new BadRequestException("Payment is " + payment.getStatus());
+        }
+
+        // Credit the account the order was created for, not whoever calls verify.
+        depositService.credit(payment.getAccount().getId(), payment.getAmount(), LedgerBook.PAYMENT_GATEWAY);
+        return VerifyResult.CREDITED;
+    }
+}
@@ -0,0 +1,82 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.WebhookEventStatus;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.exception.InvalidCredentialsException;
+import com.bank.banking_app.models.PaymentWebhookEvent;
+import com.bank.banking_app.repository.PaymentWebhookEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Front half of the webhook pipeline: checks the signature and appends the
+ * event to the inbox, nothing else, so Razorpay gets its 200 quickly and a
+ * burst of events costs one insert each. PaymentWebhookWorker does the rest.
+ */
+@Service
+public class PaymentWebhookService {
+
+    // payment_webhook_events.payload
+    private static final int MAX_PAYLOAD_LENGTH = 8000;
+
+    private final PaymentWebhookEventRepository repository;
+    private final JsonMapper jsonMapper;
+    // null while no razorpay.webhook.secret is configured: every webhook is refused
+    private final HmacSha256Verifier signatures;
+
+    public PaymentWebhookService(PaymentWebhookEventRepository repository,
+                                 JsonMapper jsonMapper,
+                                 @Value("${razorpay.webhook.secret}") String webhookSecret) {
+        this.repository = repository;
+        this.jsonMapper = jsonMapper;
+        this.signatures = webhookSecret.isEmpty()
+                ? null
+                : new HmacSha256Verifier(webhookSecret, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return false when the event was already in the inbox
+     */
+    public boolean ingest(byte[] body, String signature, String eventId) {
+        if (signatures == null || !signatures.verify(body, signature))
+            throw new InvalidCredentialsException("Invalid webhook signature");
+
+        if (eventId == null || eventId.isBlank() || eventId.length() > 64)
+            throw new BadRequestException("Missing webhook event id");
+
+        String payload = new String(body, StandardCharsets.UTF_8);
+        if (payload.length() > MAX_PAYLOAD_LENGTH)
+            throw new BadRequestException("Webhook payload too large");
+
+        String eventType;
+        try {
+            JsonNode event = jsonMapper.readTree(payload);
+            eventType = event.path("event").stringValue("");
+        } catch (JacksonException e) {
+            throw new BadRequestException("Malformed webhook payload");
+        }
+        if (eventType.isEmpty())
+            throw new BadRequestException("Malformed webhook payload");
+
+        // Redeliveries are common; answer them 200 without a second row.
+        if (repository.existsByEventId(eventId))
+            return false;
+        try {
+            repository.save(PaymentWebhookEvent.builder()
+                    .eventId(eventId)
+                    .eventType(eventType)
+                    .payload(payload)
+                    .status(WebhookEventStatus.PENDING)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.WebhookEventStatus;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.models.PaymentWebhookEvent;
+import com.bank.banking_app.repository.PaymentWebhookEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Back half of the webhook pipeline: drains PENDING inbox rows in batches on
+ * a fixed pool of razorpay.webhook.workers threads, so a burst of events
+ * takes at most that many database connections however fast it arrives.
+ * <p>
+ * Each event is claimed with a conditional UPDATE, then applied and marked
+ * PROCESSED in one transaction. PaymentService makes a repeated capture a
+ * no-op, so an event re-run after a crash never credits twice.
+ */
+@Service
+public class PaymentWebhookWorker {
+
+    private final PaymentWebhookEventRepository repository;
+    private final PaymentService paymentService;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    public PaymentWebhookWorker(PaymentWebhookEventRepository repository,
+                                PaymentService paymentService,
+                                JsonMapper jsonMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${razorpay.webhook.workers:4}") int workerCount,
+                                @Value("${razorpay.webhook.batch-size:100}") int batchSize,
+                                @Value("${razorpay.webhook.max-attempts:5}") int maxAttempts,
+                                @Value("${razorpay.webhook.claim-timeout:PT5M}") Duration claimTimeout,
+                                @Value("${razorpay.webhook.retention:P7D}") Duration retention) {
+        this.repository = repository;
+        this.paymentService = paymentService;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                Thread.ofPlatform().name("payment-webhook-", 0).daemon().factory());
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${razorpay.webhook.poll-interval:PT1S}",
+            fixedDelayString = "${razorpay.webhook.poll-interval:PT1S}")
+    public void drain() {
+        List<Long> batch;
+        do {
+            batch = transactionTemplate.execute(status ->
+                    repository.findIdsByStatus(WebhookEventStatus.PENDING, Limit.of(batchSize)));
+
+            List<Future<?>> running = batch.stream()
+                    .<Future<?>>map(id -> workers.submit(() -> process(id)))
+                    .toList();
+            for (Future<?> future : running)
+                await(future);
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${razorpay.webhook.claim-timeout:PT5M}",
+            fixedDelayString = "${razorpay.webhook.claim-timeout:PT5M}")
+    public void housekeeping() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.requeueStale(now.minus(claimTimeout));
+            repository.deleteProcessedBefore(now.minus(retention));
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private void process(Long id) {
+        Integer claimed = transactionTemplate.execute(status -> repository.claim(id, LocalDateTime.now()));
+        if (claimed == null || claimed == 0)
+            return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                PaymentWebhookEvent event = repository.findById(id).orElseThrow();
+                apply(event);
+                repository.finish(id, WebhookEventStatus.PROCESSED, null, LocalDateTime.now());
+            });
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> {
+                int attempts = repository.findById(id).map(PaymentWebhookEvent::getAttempts).orElse(maxAttempts);
+                WebhookEventStatus next = attempts >= maxAttempts
+                        ? WebhookEventStatus.FAILED
+                        : WebhookEventStatus.PENDING;
+                repository.finish(id, next, abbreviate(String.valueOf(e.getMessage())), null);
+            });
+        }
+    }
+
+    private void apply(PaymentWebhookEvent event) {
+        JsonNode payment = jsonMapper.readTree(event.getPayload())
+                .path("payload").path("payment").path("entity");
+        String orderId = payment.path("order_id").stringValue(null);
+        String paymentId = payment.path("id").stringValue(null);
+
+        switch (event.getEventType()) {
+            case "payment.captured", "order.paid" -> {
+                if (orderId == null || paymentId == null)
+                    throw new BadRequestException("Webhook has no order or payment id");
+                paymentService.capture(orderId, paymentId);
+            }
+            default -> {
+                // Kept in the inbox but not acted on. payment.failed is about
+                // one attempt, not the order: the customer may retry with
+                // another method and the order still be captured.
+            }
+        }
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            // process() records its own failures on the row
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while draining webhooks", e);
+        }
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -1,77 +1,125 @@
 package com.bank.banking_app.service;
 
 import com.bank.banking_app.dto.response.RazorpayOrderResponse;
-import com.razorpay.Order;
-import com.razorpay.RazorpayClient;
-import com.razorpay.RazorpayException;
-import org.json.JSONObject;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.exception.PaymentGatewayException;
+import com.bank.banking_app.exception.ServiceUnavailableException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * Talks to the Razorpay Orders API over the shared razorpayHttpClient.
+ * <p>
+ * The SDK's RazorpayClient is not used for this: every instance rebuilds its
+ * static OkHttp client, and its host and timeouts are fixed, so it can be
+ * neither tuned nor pointed at a test stub.
+ */
 @Service
 public class RazorpayService {
 
-    @Value("${razorpay.key.id}")
-    private String keyId;
+    private final HttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final JsonMapper jsonMapper;
+    private final URI ordersUri;
+    private final Duration readTimeout;
+    private final String authorization;
+    private final String keyId;
+    private final HmacSha256Verifier checkoutSignatures;
 
-    @Value("${razorpay.key.secret}")
-    private String keySecret;
+    public RazorpayService(HttpClient razorpayHttpClient,
+                           CircuitBreaker razorpayCircuitBreaker,
+                           JsonMapper jsonMapper,
+                           @Value("${razorpay.api.base-url:https://api.razorpay.com/v1}") String baseUrl,
+                           @Value("${razorpay.http.read-timeout:5s}") Duration readTimeout,
+                           @Value("${razorpay.key.id}") String keyId,
+                           @Value("${razorpay.key.secret}") String keySecret) {
+        this.httpClient = razorpayHttpClient;
+        this.circuitBreaker = razorpayCircuitBreaker;
+        this.jsonMapper = jsonMapper;
+        this.ordersUri = URI.create(baseUrl + "/orders");
+        this.readTimeout = readTimeout;
+        this.keyId = keyId;
+        this.checkoutSignatures = new HmacSha256Verifier(keySecret, Runtime.getRuntime().availableProcessors());
+        this.authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((keyId + ":" + keySecret).getBytes(StandardCharsets.UTF_8));
+    }
 
     public String getKey() {
         return keyId;
     }
 
-    public RazorpayOrderResponse createOrder(BigDecimal amount) throws RazorpayException {
-        RazorpayClient client = new RazorpayClient(keyId, keySecret);
+    public RazorpayOrderResponse createOrder(BigDecimal amount) {
+        Map<String, Object> options = Map.of(
+                "amount", amount.multiply(BigDecimal.valueOf(100)).intValue(), // Amount in paise
+                "currency", "INR",
+                "receipt", "rcpt_" + UUID.randomUUID().toString().substring(0, 8));
 
-        JSONObject options = new JSONObject();
-        options.put("amount", amount.multiply(BigDecimal.valueOf(100)).intValue()); // Amount in paise
-        options.put("currency", "INR");
-        options.put("receipt", "rcpt_" + UUID.randomUUID().toString().substring(0, 8));
+        HttpRequest request = HttpRequest.newBuilder(ordersUri)
+                .timeout(readTimeout)
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(options)))
+                .build();
 
-        Order order = client.orders.create(options);
+        JsonNode order = circuitBreaker.execute(() -> send(request));
 
         return RazorpayOrderResponse.builder()
-                .orderId(order.get("id"))
+                .orderId(order.get("id").asString())
                 .amount(amount)
                 .currency("INR")
                 .key(keyId)
                 .build();
     }
 
-    public boolean verifySignature(String orderId, String paymentId, String signature) {
+    private JsonNode send(HttpRequest request) {
+        HttpResponse<String> response;
         try {
-            String data = orderId + "|" + paymentId;
-
-            Mac mac = Mac.getInstance("HmacSHA256");
-            SecretKeySpec secretKeySpec = new SecretKeySpec(keySecret.getBytes(), "HmacSHA256");
-            mac.init(secretKeySpec);
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new PaymentGatewayException("Payment gateway unreachable", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Interrupted while calling payment gateway", e);
+        }
 
-            byte[] hash = mac.doFinal(data.getBytes());
-            String generatedSignature = bytesToHex(hash);
+        int status = response.statusCode();
+        // 401/403 mean our own key is wrong, not the customer's request
+        if (status == 401 || status == 403)
+            throw new PaymentGatewayException("Payment gateway refused our credentials (" + status + ")");
+        // Rate limited: temporary, and not a sign the gateway is down
+        if (status == 429)
+            throw new ServiceUnavailableException("Payment gateway is busy, try again shortly");
+        if (status >= 400 && status < 500)
+            throw new BadRequestException("Payment gateway rejected the order");
+        if (status != 200)
+            throw new PaymentGatewayException("Payment gateway returned " + status);
 
-            return generatedSignature.equals(signature);
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            return false;
+        try {
+            JsonNode order = jsonMapper.readTree(response.body());
+            if (!order.hasNonNull("id"))
+                throw new PaymentGatewayException("Payment gateway returned no order id");
+            return order;
+        } catch (JacksonException e) {
+            throw new PaymentGatewayException("Malformed payment gateway response", e);
         }
     }
 
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : bytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
+    public boolean verifySignature(String orderId, String paymentId, String signature) {
+        return checkoutSignatures.verify(orderId, paymentId, signature);
     }
 }
@@ -0,0 +1,167 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.dto.response.TransactionHistoryResponse;
+import com.bank.banking_app.enums.StatementFormat;
+import com.bank.banking_app.enums.TransactionStatus;
+import com.bank.banking_app.enums.TransactionType;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.exception.ServiceUnavailableException;
+import com.bank.banking_app.security.AccountPrincipalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Account statements streamed straight from a forward-only JDBC cursor.
+ * <p>
+ * Rows are streamed (on MySQL, Connector/J's row-by-row mode, set up by the
+ * Integer.MIN_VALUE fetch size on this service's own JdbcTemplate; the rest
+ * of the app keeps the driver defaults) and written to the response as they
+ * arrive, without entities or a persistence context, so memory stays flat
+ * however long the statement is. Each export holds a pooled connection
+ * until the client has read it all, so only a few may run at once.
+ */
+@Service
+public class StatementExportService {
+
+    // Public so QueryPlanTest can check its plan
+    public static final String STATEMENT_SQL = "select transaction_id, transaction_type, amount, balance_before, " +
+            "balance_after, status, created_at from transactions " +
+            "where account_id = ? and created_at >= ? and created_at < ? order by created_at, id";
+    // Every column is a UUID, enum, decimal or timestamp: nothing needs quoting.
+    private static final String CSV_HEADER =
+            "transactionId,createdAt,transactionType,status,amount,balanceBefore,balanceAfter\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final AccountPrincipalCache principalCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore exports;
+
+    public StatementExportService(DataSource dataSource,
+                                  JsonMapper jsonMapper,
+                                  AccountPrincipalCache principalCache,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${banking.statement.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize,
+                                  @Value("${banking.statement.max-concurrent-exports:4}") int maxConcurrentExports) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.jsonMapper = jsonMapper;
+        this.principalCache = principalCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.exports = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * Checks the request and takes an export slot; nothing is read until
+     * {@link Export#writeTo}. Close the export to free the slot.
+     *
+     * @param to last day included
+     */
+    public Export open(LocalDate from, LocalDate to, StatementFormat format) {
+        if (from.isAfter(to))
+            throw new BadRequestException("from must not be after to");
+        Long accountId = principalCache.current().accountId();
+
+        if (!exports.tryAcquire())
+            throw new ServiceUnavailableException("Statement export is busy, try again shortly");
+        return new Export(accountId, from, to, format);
+    }
+
+    public final class Export implements AutoCloseable {
+
+        private final Long accountId;
+        private final LocalDate from;
+        private final LocalDate to;
+        private final StatementFormat format;
+        private boolean closed;
+
+        private Export(Long accountId, LocalDate from, LocalDate to, StatementFormat format) {
+            this.accountId = accountId;
+            this.from = from;
+            this.to = to;
+            this.format = format;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (format == StatementFormat.CSV)
+                writer.write(CSV_HEADER);
+
+            // Read-only, so a read replica serves it when one is configured
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(STATEMENT_SQL, (RowCallbackHandler) rs -> {
+                    try {
+                        if (format == StatementFormat.CSV)
+                            writeCsv(writer, rs);
+                        else
+                            writeJson(writer, rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, accountId, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay())));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                exports.release();
+            }
+        }
+    }
+
+    private static void writeCsv(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write(rs.getString("transaction_id"));
+        writer.write(',');
+        writer.write(rs.getTimestamp("created_at").toLocalDateTime().toString());
+        writer.write(',');
+        writer.write(rs.getString("transaction_type"));
+        writer.write(',');
+        writer.write(rs.getString("status"));
+        writer.write(',');
+        writer.write(rs.getBigDecimal("amount").toPlainString());
+        writer.write(',');
+        writer.write(rs.getBigDecimal("balance_before").toPlainString());
+        writer.write(',');
+        writer.write(rs.getBigDecimal("balance_after").toPlainString());
+        writer.write('\n');
+    }
+
+    // Same fields as the history endpoints return
+    private void writeJson(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write(jsonMapper.writeValueAsString(TransactionHistoryResponse.builder()
+                .transactionId(rs.getString("transaction_id"))
+                .transactionType(TransactionType.valueOf(rs.getString("transaction_type")))
+                .amount(rs.getBigDecimal("amount"))
+                .balanceBefore(rs.getBigDecimal("balance_before"))
+                .balanceAfter(rs.getBigDecimal("balance_after"))
+                .status(TransactionStatus.valueOf(rs.getString("status")))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build()));
+        writer.write('\n');
+    }
+}
@@ -1,49 +1,56 @@
 package com.bank.banking_app.service;
 
 import com.bank.banking_app.Transformer.TransactionHistoryTransformer;
+import com.bank.banking_app.dto.request.HistoryCursor;
 import com.bank.banking_app.dto.response.TransactionHistoryResponse;
-import com.bank.banking_app.exception.AccountNotFoundException;
-import com.bank.banking_app.exception.InvalidCredentialsException;
-import com.bank.banking_app.models.Account;
-import com.bank.banking_app.models.Users;
-import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.dto.response.TransactionHistorySliceResponse;
+import com.bank.banking_app.repository.TransactionHistoryRow;
 import com.bank.banking_app.repository.TransactionRepository;
-import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.AccountPrincipalCache;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TransactionHistoryService {
 
-    private final UserRepository userRepository;
-    private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final AccountPrincipalCache principalCache;
 
-    public TransactionHistoryService(UserRepository userRepository,
-                                     AccountRepository accountRepository,
-                                     TransactionRepository transactionRepository) {
-        this.userRepository = userRepository;
-        this.accountRepository = accountRepository;
+    public TransactionHistoryService(TransactionRepository transactionRepository,
+                                     AccountPrincipalCache principalCache) {
         this.transactionRepository = transactionRepository;
+        this.principalCache = principalCache;
     }
 
+    @Transactional(readOnly = true)
     public Page<TransactionHistoryResponse> history(Pageable pageable) {
 
-        String email = SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getName();
+        Long accountId = principalCache.current().accountId();
 
-        Users user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
+        return transactionRepository
+                .findHistoryPage(accountId, pageable)
+                .map(TransactionHistoryTransformer::rowToResponse);
+    }
 
-        Account account = accountRepository.findByUser(user)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+    @Transactional(readOnly = true)
+    public TransactionHistorySliceResponse historyAfter(String cursor, int size) {
 
-        return transactionRepository
-                .findByAccount(account, pageable)
-                .map(TransactionHistoryTransformer::transactionToResponse);
+        Long accountId = principalCache.current().accountId();
+
+        Pageable limit = PageRequest.of(0, size);
+
+        Slice<TransactionHistoryRow> slice;
+        if (cursor == null || cursor.isBlank()) {
+            slice = transactionRepository.findHistorySlice(accountId, limit);
+        } else {
+            HistoryCursor after = HistoryCursor.decode(cursor);
+            slice = transactionRepository.findSliceAfter(accountId, after.createdAt(), after.id(), limit);
+        }
+
+        return TransactionHistoryTransformer.sliceToResponse(slice);
     }
-}
\ No newline at end of file
+}
@@ -4,95 +4,111 @@ import com.bank.banking_app.Transformer.TransactionTransformer;
 import com.bank.banking_app.dto.request.TransferRequest;
 import com.bank.banking_app.enums.KycStatus;
 import com.bank.banking_app.enums.TransactionStatus;
+import com.bank.banking_app.enums.TransactionType;
 import com.bank.banking_app.exception.AccountNotActiveException;
 import com.bank.banking_app.exception.AccountNotFoundException;
 import com.bank.banking_app.exception.InsufficientBalanceException;
-import com.bank.banking_app.exception.InvalidCredentialsException;
 import com.bank.banking_app.models.Account;
 import com.bank.banking_app.models.Transaction;
-import com.bank.banking_app.models.Users;
 import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalancePosition;
 import com.bank.banking_app.repository.TransactionRepository;
-import com.bank.banking_app.repository.UserRepository;
-import jakarta.transaction.Transactional;
-import org.springframework.security.core.context.SecurityContextHolder;
+import com.bank.banking_app.security.AccountPrincipalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class TransferService {
 
-    private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
-
-    public TransferService(UserRepository userRepository,
-                           AccountRepository accountRepository,
-                           TransactionRepository transactionRepository) {
-        this.userRepository = userRepository;
+    private final AccountPrincipalCache principalCache;
+    private final LedgerService ledgerService;
+    private final AccountBalanceService balanceService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+
+    public TransferService(AccountRepository accountRepository,
+                           TransactionRepository transactionRepository,
+                           AccountPrincipalCache principalCache,
+                           LedgerService ledgerService,
+                           AccountBalanceService balanceService,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${banking.transfer.max-attempts:3}") int maxAttempts) {
         this.accountRepository = accountRepository;
         this.transactionRepository = transactionRepository;
+        this.principalCache = principalCache;
+        this.ledgerService = ledgerService;
+        this.balanceService = balanceService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
     }
 
-    @Transactional
     public void transfer(TransferRequest request) {
 
-        String email = SecurityContextHolder
-                .getContext()
-                .getAuthentication()
-                .getName();
-
-        Users senderUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new InvalidCredentialsException("User not found"));
-
-        Account sender = accountRepository.findByUser(senderUser)
-                .orElseThrow(() -> new AccountNotFoundException("Sender account not found"));
+        Long senderId = principalCache.current().accountId();
+
+        // A deadlock victim or lock-timeout loser has had its transaction rolled
+        // back by the database, so it is safe to run the whole transfer again.
+        // When we are joined to a caller's transaction there is nothing to retry.
+        boolean retryable = !TransactionSynchronizationManager.isActualTransactionActive();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> doTransfer(senderId, request));
+                return;
+            } catch (PessimisticLockingFailureException e) {
+                if (!retryable || attempt >= maxAttempts)
+                    throw e;
+                backOff(attempt);
+            }
+        }
+    }
 
-        if (sender.getStatus() != KycStatus.AccountStatus.ACTIVE)
-            throw new AccountNotActiveException("Sender account inactive");
+    private void doTransfer(Long senderId, TransferRequest request) {
 
-        Account receiver = accountRepository
-                .findByAccountNumber(request.getReceiverAccountNumber())
+        Long receiverId = accountRepository
+                .findIdByAccountNumber(request.getReceiverAccountNumber())
                 .orElseThrow(() -> new AccountNotFoundException("Receiver account not found"));
 
-        if (receiver.getStatus() != KycStatus.AccountStatus.ACTIVE)
-            throw new AccountNotActiveException("Receiver account inactive");
-
-        if (sender.getAccountNumber().equals(receiver.getAccountNumber()))
+        if (senderId.equals(receiverId))
             throw new IllegalArgumentException("Cannot transfer to same account");
 
         BigDecimal amount = request.getAmount();
-        BigDecimal senderBefore = sender.getBalance();
 
-        if (senderBefore.compareTo(amount) < 0) {
-
-            Transaction failedDebit =
-                    TransactionTransformer.transferDebit(
-                            sender,
-                            amount,
-                            senderBefore,
-                            senderBefore,
-                            TransactionStatus.FAILED
-                    );
-
-            transactionRepository.save(failedDebit);
-            throw new InsufficientBalanceException("Insufficient balance");
+        // Apply the two legs in ascending id order: every transfer touching the
+        // same pair of rows then takes their row locks in the same order, so
+        // opposite-direction transfers queue instead of deadlocking. A credit
+        // to a hot receiver locks only one of its slots.
+        AccountBalanceService.Credit credit;
+        if (senderId < receiverId) {
+            debitSender(senderId, amount);
+            credit = creditReceiver(receiverId, amount);
+        } else {
+            credit = creditReceiver(receiverId, amount);
+            debitSender(senderId, amount);
         }
 
-        BigDecimal senderAfter = senderBefore.subtract(amount);
-        BigDecimal receiverBefore = receiver.getBalance();
-        BigDecimal receiverAfter = receiverBefore.add(amount);
+        BalancePosition sender = positionOf(senderId);
+        BigDecimal senderAfter = balanceService.totalBalance(senderId, sender.balance());
+        BigDecimal senderBefore = senderAfter.add(amount);
+        BigDecimal receiverAfter = credit.balanceAfter();
+        BigDecimal receiverBefore = receiverAfter.subtract(amount);
 
-        sender.setBalance(senderAfter);
-        receiver.setBalance(receiverAfter);
-
-        accountRepository.save(sender);
-        accountRepository.save(receiver);
+        ledgerService.post(TransactionType.TRANSFER,
+                LedgerService.Leg.customer(senderId, sender.seq(), amount.negate()),
+                credit.leg());
 
         Transaction debitTxn =
                 TransactionTransformer.transferDebit(
-                        sender,
+                        accountRepository.getReferenceById(senderId),
                         amount,
                         senderBefore,
                         senderAfter,
@@ -101,7 +117,7 @@ public class TransferService {
 
         Transaction creditTxn =
                 TransactionTransformer.transferCredit(
-                        receiver,
+                        accountRepository.getReferenceById(receiverId),
                         amount,
                         receiverBefore,
                         receiverAfter
@@ -110,4 +126,50 @@ public class TransferService {
         transactionRepository.save(debitTxn);
         transactionRepository.save(creditTxn);
     }
+
+    private void debitSender(Long senderId, BigDecimal amount) {
+        if (accountRepository.debitIfActive(senderId, amount) == 1)
+            return;
+        // A hot sender's credits may be sitting in its slots
+        if (balanceService.sweep(senderId) && accountRepository.debitIfActive(senderId, amount) == 1)
+            return;
+
+        // Slow path only: work out which guard of the UPDATE failed.
+        Account sender = accountRepository.findById(senderId)
+                .orElseThrow(() -> new AccountNotFoundException("Sender account not found"));
+
+        if (sender.getStatus() != KycStatus.AccountStatus.ACTIVE)
+            throw new AccountNotActiveException("Sender account inactive");
+
+        Transaction failedDebit =
+                TransactionTransformer.transferDebit(
+                        sender,
+                        amount,
+                        sender.getBalance(),
+                        sender.getBalance(),
+                        TransactionStatus.FAILED
+                );
+
+        transactionRepository.save(failedDebit);
+        throw new InsufficientBalanceException("Insufficient balance");
+    }
+
+    private AccountBalanceService.Credit creditReceiver(Long receiverId, BigDecimal amount) {
+        return balanceService.credit(receiverId, amount)
+                .orElseThrow(() -> new AccountNotActiveException("Receiver account inactive"));
+    }
+
+    private BalancePosition positionOf(Long accountId) {
+        return accountRepository.findPositionById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found"));
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(5, 25) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying transfer", e);
+        }
+    }
 }
@@ -3,18 +3,19 @@ package com.bank.banking_app.service;
 import com.bank.banking_app.Transformer.TransactionTransformer;
 import com.bank.banking_app.dto.request.WithDrawRequest;
 import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.LedgerBook;
 import com.bank.banking_app.enums.TransactionStatus;
+import com.bank.banking_app.enums.TransactionType;
 import com.bank.banking_app.exception.AccountNotActiveException;
 import com.bank.banking_app.exception.InsufficientBalanceException;
 import com.bank.banking_app.exception.InvalidCredentialsException;
 import com.bank.banking_app.models.Account;
 import com.bank.banking_app.models.Transaction;
-import com.bank.banking_app.models.Users;
 import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalancePosition;
 import com.bank.banking_app.repository.TransactionRepository;
-import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.AccountPrincipalCache;
 import jakarta.transaction.Transactional;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 
@@ -22,52 +23,60 @@ import java.math.BigDecimal;
 public class WithDrawService {
         private final TransactionRepository transactionRepository;
         private final AccountRepository accountRepository;
-        private final UserRepository userRepository;
+        private final AccountPrincipalCache principalCache;
+        private final LedgerService ledgerService;
+        private final AccountBalanceService balanceService;
 
         public WithDrawService(TransactionRepository transactionRepository, AccountRepository accountRepository,
-                        UserRepository userRepository) {
+                        AccountPrincipalCache principalCache, LedgerService ledgerService,
+                        AccountBalanceService balanceService) {
                 this.transactionRepository = transactionRepository;
                 this.accountRepository = accountRepository;
-                this.userRepository = userRepository;
+                this.principalCache = principalCache;
+                this.ledgerService = ledgerService;
+                this.balanceService = balanceService;
         }
 
         @Transactional
         public void withDraw(WithDrawRequest request) {
-                String email = SecurityContextHolder
-                                .getContext()
-                                .getAuthentication()
-                                .getName();
-                Users user = userRepository.findByEmail(email)
-                                .orElseThrow(() -> new InvalidCredentialsException("User Not found"));
+                Long accountId = principalCache.current().accountId();
 
-                Account account = accountRepository.findByUser(user)
-                                .orElseThrow(() -> new InvalidCredentialsException("Account not found"));
+                BigDecimal amount = request.getAmount();
 
-                if (account.getStatus() != KycStatus.AccountStatus.ACTIVE) {
-                        throw new AccountNotActiveException("Account is not active");
-                }
-                BigDecimal balanceBefore = account.getBalance();
+                if (accountRepository.debitIfActive(accountId, amount) == 0
+                                // A hot account's credits may be sitting in its slots
+                                && !(balanceService.sweep(accountId)
+                                                && accountRepository.debitIfActive(accountId, amount) == 1)) {
+                        // Slow path only: work out which guard of the UPDATE failed.
+                        Account account = accountRepository.findById(accountId)
+                                        .orElseThrow(() -> new InvalidCredentialsException("Account not found"));
 
-                if (balanceBefore.compareTo(request.getAmount()) < 0) {
+                        if (account.getStatus() != KycStatus.AccountStatus.ACTIVE) {
+                                throw new AccountNotActiveException("Account is not active");
+                        }
                         Transaction failedTxn = TransactionTransformer.withDrawTransaction(
                                         account,
-                                        request.getAmount(),
-                                        balanceBefore,
-                                        balanceBefore,
+                                        amount,
+                                        account.getBalance(),
+                                        account.getBalance(),
                                         TransactionStatus.FAILED
 
                         );
                         transactionRepository.save(failedTxn);
                         throw new InsufficientBalanceException("Insufficient balance");
                 }
-                BigDecimal balanceAfter = balanceBefore.subtract(request.getAmount());
+                BalancePosition after = accountRepository.findPositionById(accountId)
+                                .orElseThrow(() -> new InvalidCredentialsException("Account not found"));
+                BigDecimal balanceAfter = balanceService.totalBalance(accountId, after.balance());
+                BigDecimal balanceBefore = balanceAfter.add(amount);
 
-                account.setBalance(balanceAfter);
-                accountRepository.save(account);
+                ledgerService.post(TransactionType.WITHDRAW,
+                                LedgerService.Leg.customer(accountId, after.seq(), amount.negate()),
+                                LedgerService.Leg.external(LedgerBook.CASH, amount));
 
                 Transaction successTnx = TransactionTransformer.withDrawTransaction(
-                                account,
-                                request.getAmount(),
+                                accountRepository.getReferenceById(accountId),
+                                amount,
                                 balanceBefore,
                                 balanceAfter,
                                 TransactionStatus.SUCCESS);
@@ -0,0 +1,17 @@
+-- Bulk transfers (BulkTransferService), one row per sender and Idempotency-Key.
+-- checkpoint_line is the last batch line whose chunk is settled, whether it
+-- committed, failed or was all rejected; a resubmit under the same key skips
+-- up to it. A chunk that moves money advances it in the same transaction.
+CREATE TABLE bulk_transfer_batches (
+    account_id      BIGINT         NOT NULL,
+    batch_id        VARCHAR(255)   NOT NULL,
+    request_hash    VARCHAR(64)    NOT NULL,
+    status          VARCHAR(20)    NOT NULL,
+    checkpoint_line INT            NOT NULL,
+    succeeded       INT            NOT NULL,
+    rejected        INT            NOT NULL,
+    failed          INT            NOT NULL,
+    total_debited   DECIMAL(19, 2) NOT NULL,
+    updated_at      DATETIME(6)    NOT NULL,
+    CONSTRAINT pk_bulk_transfer_batches PRIMARY KEY (account_id, batch_id)
+);
@@ -0,0 +1,4 @@
+-- SHA-256 of the import file's header and every line up to checkpoint_line,
+-- so a re-run of the same job_id can tell it was given the same file.
+-- NULL until the job's first chunk commits.
+ALTER TABLE account_import_jobs ADD COLUMN content_hash VARCHAR(64) NULL;
@@ -0,0 +1,61 @@
+-- Schema as previously maintained by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and start from V2.
+
+CREATE TABLE users (
+    id              BIGINT       NOT NULL,
+    full_name       VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    phone           VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    aadhaar_number  VARCHAR(12)  NOT NULL,
+    pan_card_number VARCHAR(10)  NOT NULL,
+    kyc_status      VARCHAR(32)  NOT NULL,
+    created_at      DATETIME(6)  NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_phone UNIQUE (phone),
+    CONSTRAINT uk_users_aadhaar_number UNIQUE (aadhaar_number),
+    CONSTRAINT uk_users_pan_card_number UNIQUE (pan_card_number)
+);
+
+CREATE TABLE accounts (
+    id             BIGINT         NOT NULL,
+    account_number VARCHAR(255)   NOT NULL,
+    account_type   VARCHAR(32)    NOT NULL,
+    balance        DECIMAL(19, 2) NOT NULL,
+    status         VARCHAR(32)    NOT NULL,
+    user_id        BIGINT         NOT NULL,
+    created_at     DATETIME(6)    NOT NULL,
+    CONSTRAINT pk_accounts PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_account_number UNIQUE (account_number),
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE transactions (
+    id               BIGINT         NOT NULL,
+    transaction_id   VARCHAR(255)   NOT NULL,
+    transaction_type VARCHAR(32)    NOT NULL,
+    amount           DECIMAL(19, 2) NOT NULL,
+    balance_before   DECIMAL(19, 2) NOT NULL,
+    balance_after    DECIMAL(19, 2) NOT NULL,
+    status           VARCHAR(32)    NOT NULL,
+    account_id       BIGINT         NOT NULL,
+    created_at       DATETIME(6)    NOT NULL,
+    CONSTRAINT pk_transactions PRIMARY KEY (id),
+    CONSTRAINT uk_transactions_transaction_id UNIQUE (transaction_id),
+    CONSTRAINT fk_transactions_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+CREATE TABLE payment (
+    id                  BIGINT         NOT NULL,
+    razorpay_order_id   VARCHAR(255),
+    razorpay_payment_id VARCHAR(255),
+    razorpay_signature  VARCHAR(255),
+    amount              DECIMAL(38, 2) NOT NULL,
+    status              VARCHAR(32),
+    account_id          BIGINT,
+    created_at          DATETIME(6),
+    CONSTRAINT pk_payment PRIMARY KEY (id),
+    CONSTRAINT fk_payment_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
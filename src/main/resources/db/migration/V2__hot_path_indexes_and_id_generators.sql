@@ -0,0 +1,46 @@
+-- One index per repository finder that is not already served by a primary
+-- key or unique constraint:
+--   TransactionRepository.findByAccount*, findSliceAfter -> idx_transactions_account_created
+--   PaymentRepository.findByRazorpayOrderId              -> uk_payment_razorpay_order_id
+-- Users lookups (email, phone, aadhaar, PAN) and account_number lookups use
+-- the unique constraints from V1; AccountRepository.findByUser uses the index
+-- MySQL creates for fk_accounts_user.
+
+CREATE INDEX idx_transactions_account_created ON transactions (account_id, created_at, id);
+
+ALTER TABLE payment ADD CONSTRAINT uk_payment_razorpay_order_id UNIQUE (razorpay_order_id);
+
+-- Pooled TableGenerator state. Hibernate hands out the block
+-- (next_val - 49 .. next_val) for a stored next_val, so each row starts at
+-- max(id) + 50 to stay clear of ids issued before this migration.
+CREATE TABLE IF NOT EXISTS id_generators (
+    gen_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    CONSTRAINT pk_id_generators PRIMARY KEY (gen_name)
+);
+
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'users', 0 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE gen_name = 'users');
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'accounts', 0 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE gen_name = 'accounts');
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'transactions', 0 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE gen_name = 'transactions');
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'payment', 0 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE gen_name = 'payment');
+
+UPDATE id_generators
+SET next_val = GREATEST(COALESCE(next_val, 0), (SELECT COALESCE(MAX(id), 0) + 50 FROM users))
+WHERE gen_name = 'users';
+UPDATE id_generators
+SET next_val = GREATEST(COALESCE(next_val, 0), (SELECT COALESCE(MAX(id), 0) + 50 FROM accounts))
+WHERE gen_name = 'accounts';
+UPDATE id_generators
+SET next_val = GREATEST(COALESCE(next_val, 0), (SELECT COALESCE(MAX(id), 0) + 50 FROM transactions))
+WHERE gen_name = 'transactions';
+UPDATE id_generators
+SET next_val = GREATEST(COALESCE(next_val, 0), (SELECT COALESCE(MAX(id), 0) + 50 FROM payment))
+WHERE gen_name = 'payment';
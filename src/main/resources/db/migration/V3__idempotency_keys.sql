@@ -0,0 +1,24 @@
+-- Stored outcomes of requests sent with an Idempotency-Key header, so client
+-- retries of deposit / withdraw / transfer / payment verify replay the first
+-- response instead of moving money again. Rows expire after
+-- banking.idempotency.ttl and are purged by IdempotencyService. The id block
+-- starts at 50, as for the empty tables seeded in V2.
+
+CREATE TABLE idempotency_keys (
+    id                    BIGINT        NOT NULL,
+    user_id               BIGINT        NOT NULL,
+    idempotency_key       VARCHAR(255)  NOT NULL,
+    request_hash          VARCHAR(64)   NOT NULL,
+    status                VARCHAR(32)   NOT NULL,
+    response_status       INT,
+    response_content_type VARCHAR(255),
+    response_body         VARCHAR(4000),
+    created_at            DATETIME(6)   NOT NULL,
+    expires_at            DATETIME(6)   NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires ON idempotency_keys (expires_at);
+
+INSERT INTO id_generators (gen_name, next_val) VALUES ('idempotency_keys', 50);
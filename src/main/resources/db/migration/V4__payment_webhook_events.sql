@@ -0,0 +1,23 @@
+-- Inbox for Razorpay webhooks. The endpoint verifies the signature, appends
+-- the event here and answers 200; PaymentWebhookWorker drains PENDING rows in
+-- id order and credits the account. event_id is Razorpay's X-Razorpay-Event-Id,
+-- so a redelivered event is stored once.
+
+CREATE TABLE payment_webhook_events (
+    id           BIGINT        NOT NULL,
+    event_id     VARCHAR(64)   NOT NULL,
+    event_type   VARCHAR(64)   NOT NULL,
+    payload      VARCHAR(8000) NOT NULL,
+    status       VARCHAR(32)   NOT NULL,
+    attempts     INT           NOT NULL,
+    last_error   VARCHAR(500),
+    received_at  DATETIME(6)   NOT NULL,
+    claimed_at   DATETIME(6),
+    processed_at DATETIME(6),
+    CONSTRAINT pk_payment_webhook_events PRIMARY KEY (id),
+    CONSTRAINT uk_payment_webhook_events_event_id UNIQUE (event_id)
+);
+
+CREATE INDEX idx_payment_webhook_events_status ON payment_webhook_events (status, id);
+
+INSERT INTO id_generators (gen_name, next_val) VALUES ('payment_webhook_events', 50);
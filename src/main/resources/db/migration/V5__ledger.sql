@@ -0,0 +1,40 @@
+-- Double-entry ledger. Every balance change is a journal of ledger_entries
+-- summing to zero; accounts.balance is the running projection of the
+-- CUSTOMER entries and account_balance_snapshots lets a balance be rebuilt
+-- from the latest snapshot plus the entries after it.
+--
+-- accounts.ledger_seq is bumped by the same UPDATE that changes the balance,
+-- so it numbers an account's entries in commit order. Balances that predate
+-- the ledger are adopted as seq-0 snapshots.
+
+ALTER TABLE accounts ADD COLUMN ledger_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE ledger_entries (
+    id          BIGINT         NOT NULL,
+    journal_id  VARCHAR(36)    NOT NULL,
+    entry_type  VARCHAR(32)    NOT NULL,
+    book        VARCHAR(32)    NOT NULL,
+    account_id  BIGINT,
+    seq         BIGINT,
+    amount      DECIMAL(19, 2) NOT NULL,
+    created_at  DATETIME(6)    NOT NULL,
+    CONSTRAINT pk_ledger_entries PRIMARY KEY (id),
+    CONSTRAINT uk_ledger_entries_account_seq UNIQUE (account_id, seq),
+    CONSTRAINT fk_ledger_entries_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+CREATE INDEX idx_ledger_entries_journal ON ledger_entries (journal_id);
+
+CREATE TABLE account_balance_snapshots (
+    account_id BIGINT         NOT NULL,
+    balance    DECIMAL(19, 2) NOT NULL,
+    seq        BIGINT         NOT NULL,
+    taken_at   DATETIME(6)    NOT NULL,
+    CONSTRAINT pk_account_balance_snapshots PRIMARY KEY (account_id),
+    CONSTRAINT fk_account_balance_snapshots_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+INSERT INTO account_balance_snapshots (account_id, balance, seq, taken_at)
+SELECT id, balance, 0, CURRENT_TIMESTAMP(6) FROM accounts;
+
+INSERT INTO id_generators (gen_name, next_val) VALUES ('ledger_entries', 50);
@@ -0,0 +1,33 @@
+-- Hot accounts: an account with hot_slots = N > 0 takes credits on N
+-- sub-balance rows in account_balance_slots (slots 1..N) instead of its own
+-- row, so concurrent credits lock different rows. Its balance is
+-- accounts.balance (slot 0) plus the slots; debits sweep slots into slot 0.
+--
+-- Each slot numbers its own ledger entries, so ledger_entries and
+-- account_balance_snapshots are keyed by (account, slot) from here on.
+-- Foreign keys are dropped and re-added around the key changes because both
+-- MySQL and H2 may have bound them to the index being replaced.
+
+ALTER TABLE accounts ADD COLUMN hot_slots INT NOT NULL DEFAULT 0;
+
+CREATE TABLE account_balance_slots (
+    account_id BIGINT         NOT NULL,
+    slot       INT            NOT NULL,
+    balance    DECIMAL(19, 2) NOT NULL,
+    ledger_seq BIGINT         NOT NULL,
+    CONSTRAINT pk_account_balance_slots PRIMARY KEY (account_id, slot),
+    CONSTRAINT fk_account_balance_slots_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+ALTER TABLE ledger_entries ADD COLUMN slot INT NOT NULL DEFAULT 0;
+ALTER TABLE ledger_entries DROP CONSTRAINT fk_ledger_entries_account;
+ALTER TABLE ledger_entries DROP CONSTRAINT uk_ledger_entries_account_seq;
+ALTER TABLE ledger_entries ADD CONSTRAINT uk_ledger_entries_account_slot_seq UNIQUE (account_id, slot, seq);
+ALTER TABLE ledger_entries ADD CONSTRAINT fk_ledger_entries_account FOREIGN KEY (account_id) REFERENCES accounts (id);
+
+ALTER TABLE account_balance_snapshots ADD COLUMN slot INT NOT NULL DEFAULT 0;
+ALTER TABLE account_balance_snapshots DROP CONSTRAINT fk_account_balance_snapshots_account;
+ALTER TABLE account_balance_snapshots DROP PRIMARY KEY;
+ALTER TABLE account_balance_snapshots ADD CONSTRAINT pk_account_balance_snapshots PRIMARY KEY (account_id, slot);
+ALTER TABLE account_balance_snapshots ADD CONSTRAINT fk_account_balance_snapshots_account
+    FOREIGN KEY (account_id) REFERENCES accounts (id);
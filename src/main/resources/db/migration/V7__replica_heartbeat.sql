@@ -0,0 +1,9 @@
+-- Read replica lag probe: ReplicaDataSource bumps beat_at on the primary
+-- (with the primary's clock) and compares it with each replica's copy.
+CREATE TABLE replica_heartbeat (
+    id      INT          NOT NULL,
+    beat_at DATETIME(6)  NOT NULL,
+    CONSTRAINT pk_replica_heartbeat PRIMARY KEY (id)
+);
+
+INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP(6));
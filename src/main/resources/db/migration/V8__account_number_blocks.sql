@@ -0,0 +1,7 @@
+-- Account number high-water mark for BlockAccountNumberAllocator. next_val is
+-- the next unreserved 11-digit body; each node reserves block-size bodies at
+-- a time and appends a Luhn check digit, giving 12-digit account numbers.
+-- Numbers issued at random before this migration are skipped per block.
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'account_number', 10000000000 FROM (SELECT 1 AS one) seed
+WHERE NOT EXISTS (SELECT 1 FROM id_generators WHERE gen_name = 'account_number');
@@ -0,0 +1,12 @@
+-- Bulk customer imports (AccountImportService). checkpoint_line is the last
+-- CSV line whose chunk has committed; a re-run of the same job_id skips up
+-- to it. Each chunk advances it in the same transaction as its inserts.
+CREATE TABLE account_import_jobs (
+    job_id          VARCHAR(64) NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    checkpoint_line BIGINT      NOT NULL,
+    imported        BIGINT      NOT NULL,
+    rejected        BIGINT      NOT NULL,
+    updated_at      DATETIME(6) NOT NULL,
+    CONSTRAINT pk_account_import_jobs PRIMARY KEY (job_id)
+);
@@ -0,0 +1,79 @@
+package com.bank.banking_app;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guard for the virtual-thread mode: on JDK 21 a virtual thread that blocks
+ * (JDBC, Razorpay HTTP, Thread.sleep) inside a synchronized method or block
+ * pins its carrier thread. Application code must use java.util.concurrent
+ * locks instead, so this fails on any monitor in the compiled main classes.
+ */
+class VirtualThreadPinningTest {
+
+    @Test
+    @DisplayName("Application classes should not use synchronized")
+    void applicationClasses_ShouldNotUseSynchronized() throws Exception {
+        List<String> offenders = new ArrayList<>();
+
+        try (Stream<Path> classFiles = Files.walk(mainClassesRoot())) {
+            for (Path classFile : classFiles.filter(path -> path.toString().endsWith(".class")).toList()) {
+                try (InputStream in = Files.newInputStream(classFile)) {
+                    new ClassReader(in).accept(new MonitorFinder(offenders), ClassReader.SKIP_DEBUG);
+                }
+            }
+        }
+
+        assertThat(offenders).isEmpty();
+    }
+
+    private static Path mainClassesRoot() throws URISyntaxException {
+        return Path.of(BankingAppApplication.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static class MonitorFinder extends ClassVisitor {
+
+        private final List<String> offenders;
+        private String className;
+
+        MonitorFinder(List<String> offenders) {
+            super(Opcodes.ASM9);
+            this.offenders = offenders;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            className = name.replace('/', '.');
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            String method = className + "#" + name;
+            if ((access & Opcodes.ACC_SYNCHRONIZED) != 0)
+                offenders.add(method + " (synchronized method)");
+
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitInsn(int opcode) {
+                    if (opcode == Opcodes.MONITORENTER)
+                        offenders.add(method + " (synchronized block)");
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.bank.banking_app.config;
+
+import com.bank.banking_app.repository.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for ReadReplicaConfig / ReplicaDataSource
+ * Uses a second embedded database as the replica: nothing replicates into it,
+ * so a row that exists only there shows which database served a read
+ */
+@SpringBootTest(properties = {
+        "banking.read-replicas.enabled=true",
+        "banking.read-replicas.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "banking.read-replicas.max-lag=PT1M"
+})
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:banking_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_ONLY_EMAIL = "replica-only@example.com";
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    // Replicas get their schema from the primary in production; here it is built directly.
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @BeforeEach
+    void setUp() {
+        replica.update("insert into users (id, full_name, email, phone, password, aadhaar_number, " +
+                "pan_card_number, kyc_status, created_at) values (990001, 'Replica Only', ?, '9000000099', " +
+                "'x', '990000000001', 'REPLA1234A', 'VERIFIED', CURRENT_TIMESTAMP)", REPLICA_ONLY_EMAIL);
+        catchUpReplica();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        replica.update("delete from users where id = 990001");
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should read from a caught-up replica, others from the primary")
+    void readOnly_ShouldUseReplica() {
+        assertThat(replicaDataSource.healthyReplicas()).isEqualTo(1);
+        assertThat(existsInReadOnlyTransaction()).isTrue();
+        assertThat(userRepository.findByEmail(REPLICA_ONLY_EMAIL)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A replica further behind than max-lag should be skipped until it catches up")
+    void laggingReplica_ShouldFallBackToPrimary() {
+        // Given
+        replica.update("update replica_heartbeat set beat_at = ? where id = 1",
+                Timestamp.valueOf("2000-01-01 00:00:00"));
+
+        // When
+        replicaDataSource.checkReplicas();
+
+        // Then
+        assertThat(replicaDataSource.healthyReplicas()).isZero();
+        assertThat(existsInReadOnlyTransaction()).isFalse();
+
+        catchUpReplica();
+        assertThat(existsInReadOnlyTransaction()).isTrue();
+    }
+
+    // Helper methods
+    private boolean existsInReadOnlyTransaction() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return Boolean.TRUE.equals(readOnly.execute(status -> userRepository.findByEmail(REPLICA_ONLY_EMAIL).isPresent()));
+    }
+
+    // Stands in for replication of the heartbeat row, then runs the lag check
+    private void catchUpReplica() {
+        replicaDataSource.checkReplicas();
+        replica.update("update replica_heartbeat set beat_at = CURRENT_TIMESTAMP(6) where id = 1");
+        replicaDataSource.checkReplicas();
+    }
+}
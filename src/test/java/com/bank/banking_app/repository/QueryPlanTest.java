@@ -0,0 +1,180 @@
+package com.bank.banking_app.repository;
+
+import com.bank.banking_app.enums.IdempotencyStatus;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.WebhookEventStatus;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.service.BlockAccountNumberAllocator;
+import com.bank.banking_app.service.StatementExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Query plan tests for the repository finders
+ * Calls every finder, captures the SQL Hibernate generates for it and runs
+ * EXPLAIN on that against the Flyway-built embedded schema, checking that no
+ * table is read with a full scan. Plain JDBC queries are checked through the
+ * constants their services run.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.bank.banking_app.repository.SqlCapture")
+class QueryPlanTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository users;
+
+    @Autowired
+    private AccountRepository accounts;
+
+    @Autowired
+    private TransactionRepository transactions;
+
+    @Autowired
+    private PaymentRepository payments;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecords;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntries;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshots;
+
+    @Autowired
+    private AccountBalanceSlotRepository balanceSlots;
+
+    @Autowired
+    private PaymentWebhookEventRepository webhookEvents;
+
+    @TestFactory
+    @DisplayName("Finder queries should be served by an index")
+    Stream<DynamicTest> finders() {
+        List<String> emails = List.of("a@example.com", "b@example.com");
+        return Stream.of(
+                finder("UserRepository.findByEmail", () -> users.findByEmail("a@example.com")),
+                finder("UserRepository.findByPhone", () -> users.findByPhone("9999999999")),
+                finder("UserRepository.findTakenIdentifiers",
+                        () -> users.findTakenIdentifiers("a@example.com", "9999999999", "123412341234", "ABCDE1234F")),
+                finder("UserRepository.findEmailsIn", () -> users.findEmailsIn(emails)),
+                finder("UserRepository.findPhonesIn", () -> users.findPhonesIn(List.of("9999999999"))),
+                finder("UserRepository.findAadhaarNumbersIn", () -> users.findAadhaarNumbersIn(List.of("123412341234"))),
+                finder("UserRepository.findPanCardNumbersIn", () -> users.findPanCardNumbersIn(List.of("ABCDE1234F"))),
+                finder("UserRepository.replacePassword", () -> users.replacePassword(1L, "old", "new")),
+
+                finder("AccountRepository.findByAccountNumber", () -> accounts.findByAccountNumber("100000000001")),
+                finder("AccountRepository.existsByAccountNumber", () -> accounts.existsByAccountNumber("100000000001")),
+                finder("AccountRepository.findIdByAccountNumber", () -> accounts.findIdByAccountNumber("100000000001")),
+                finder("AccountRepository.findTransferTargets",
+                        () -> accounts.findTransferTargets(List.of("100000000001", "100000000002"))),
+                finder("AccountRepository.findPositionsByIdIn", () -> accounts.findPositionsByIdIn(List.of(1L, 2L, 3L))),
+                finder("AccountRepository.findProfileById", () -> accounts.findProfileById(1L)),
+                finder("AccountRepository.findByUser", () -> accounts.findByUser(users.getReferenceById(1L))),
+                finder("AccountRepository.findPrincipalByEmail", () -> accounts.findPrincipalByEmail("a@example.com")),
+                finder("AccountRepository.existsByIdAndStatus",
+                        () -> accounts.existsByIdAndStatus(1L, KycStatus.AccountStatus.ACTIVE)),
+                finder("AccountRepository.findHotSlotsById", () -> accounts.findHotSlotsById(1L)),
+                finder("AccountRepository.findBalanceById", () -> accounts.findBalanceById(1L)),
+                finder("AccountRepository.findPositionById", () -> accounts.findPositionById(1L)),
+                finder("AccountRepository.debitIfActive", () -> accounts.debitIfActive(1L, BigDecimal.ONE)),
+                finder("AccountRepository.creditIfActive", () -> accounts.creditIfActive(1L, BigDecimal.ONE)),
+                finder("AccountRepository.debitManyIfActive", () -> accounts.debitManyIfActive(1L, BigDecimal.ONE, 2)),
+                sql("BlockAccountNumberAllocator block reservation", BlockAccountNumberAllocator.TAKEN_IN_RANGE_SQL),
+
+                finder("TransactionRepository.findByAccount", () -> transactions.findByAccount(account())),
+                finder("TransactionRepository.findByAccountOrderByCreatedAtDesc",
+                        () -> transactions.findByAccountOrderByCreatedAtDesc(account())),
+                finder("TransactionRepository.findByAccount (paged)",
+                        () -> transactions.findByAccount(account(), PageRequest.of(1, 10))),
+                finder("TransactionRepository.findHistoryPage",
+                        () -> transactions.findHistoryPage(1L, PageRequest.of(1, 10))),
+                finder("TransactionRepository.findHistorySlice",
+                        () -> transactions.findHistorySlice(1L, PageRequest.of(0, 10))),
+                finder("TransactionRepository.findSliceAfter",
+                        () -> transactions.findSliceAfter(1L, NOW, 100L, PageRequest.of(0, 10))),
+                sql("StatementExportService statement query", StatementExportService.STATEMENT_SQL),
+
+                finder("PaymentRepository.findByRazorpayOrderId", () -> payments.findByRazorpayOrderId("order_123")),
+                finder("PaymentRepository.markSucceeded", () -> payments.markSucceeded("order_123", "pay_1", "sig")),
+
+                finder("IdempotencyRecordRepository.findByUserIdAndIdempotencyKey",
+                        () -> idempotencyRecords.findByUserIdAndIdempotencyKey(1L, "key-1")),
+                finder("IdempotencyRecordRepository.complete",
+                        () -> idempotencyRecords.complete(1L, "key-1", IdempotencyStatus.COMPLETED, 200, null, null)),
+                finder("IdempotencyRecordRepository.deleteByUserIdAndIdempotencyKey",
+                        () -> idempotencyRecords.deleteByUserIdAndIdempotencyKey(1L, "key-1")),
+                finder("IdempotencyRecordRepository.deleteExpired", () -> idempotencyRecords.deleteExpired(NOW)),
+
+                finder("LedgerEntryRepository.sumAfter", () -> ledgerEntries.sumAfter(1L, 0, 10L)),
+                finder("LedgerEntryRepository.findByJournalId", () -> ledgerEntries.findByJournalId("j-1")),
+                finder("BalanceSnapshotRepository.findByAccountId", () -> balanceSnapshots.findByAccountId(1L)),
+
+                finder("AccountBalanceSlotRepository.credit", () -> balanceSlots.credit(1L, 2, BigDecimal.ONE)),
+                finder("AccountBalanceSlotRepository.findPosition", () -> balanceSlots.findPosition(1L, 2)),
+                finder("AccountBalanceSlotRepository.findByAccountId", () -> balanceSlots.findByAccountId(1L)),
+                finder("AccountBalanceSlotRepository.sumBalance", () -> balanceSlots.sumBalance(1L)),
+                finder("AccountBalanceSlotRepository.findNonEmptyForUpdate",
+                        () -> balanceSlots.findNonEmptyForUpdate(1L)),
+
+                finder("PaymentWebhookEventRepository.existsByEventId", () -> webhookEvents.existsByEventId("evt_1")),
+                finder("PaymentWebhookEventRepository.findIdsByStatus",
+                        () -> webhookEvents.findIdsByStatus(WebhookEventStatus.PENDING, Limit.of(100))),
+                finder("PaymentWebhookEventRepository.claim", () -> webhookEvents.claim(1L, NOW)),
+                finder("PaymentWebhookEventRepository.finish",
+                        () -> webhookEvents.finish(1L, WebhookEventStatus.PROCESSED, null, NOW))
+        );
+    }
+
+    // Helper methods
+    private DynamicTest finder(String name, Runnable call) {
+        return dynamicTest(name, () -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            List<String> statements = transaction.execute(status -> {
+                status.setRollbackOnly();
+                SqlCapture.drain();
+                call.run();
+                return SqlCapture.drain();
+            });
+            assertThat(statements).as("SQL sent by %s", name).isNotEmpty();
+            statements.forEach(statement -> assertIndexed(name, statement));
+        });
+    }
+
+    private DynamicTest sql(String name, String statement) {
+        return dynamicTest(name, () -> assertIndexed(name, statement));
+    }
+
+    // H2 explains statements with their ? parameters left unbound
+    private void assertIndexed(String name, String statement) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + statement, String.class);
+        assertThat(plan).as("plan for %s: %s", name, statement).doesNotContainIgnoringCase("tableScan");
+    }
+
+    private Account account() {
+        return accounts.getReferenceById(1L);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.banking_app.security;
+
+import com.bank.banking_app.enums.KycStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for AccountPrincipalCache
+ * Tests that invalidating an account drops exactly the principal cached for it.
+ * The emails below have no users, so a dropped entry reads back empty.
+ */
+@SpringBootTest
+class AccountPrincipalCacheTest {
+
+    @Autowired
+    private AccountPrincipalCache principalCache;
+
+    @Test
+    @DisplayName("invalidateAccount should drop only that account's principal")
+    void invalidateAccount_ShouldDropOnlyThatAccount() {
+        principalCache.put(principal(9001L, "cache-a@example.com"));
+        principalCache.put(principal(9002L, "cache-b@example.com"));
+
+        principalCache.invalidateAccount(9001L);
+
+        assertThat(principalCache.get("cache-a@example.com")).isEmpty();
+        assertThat(principalCache.get("cache-b@example.com")).isPresent();
+        principalCache.invalidate("cache-b@example.com");
+        assertThat(principalCache.get("cache-b@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A new owner's principal should replace the old owner's for the account")
+    void put_NewOwner_ShouldDropPreviousOwner() {
+        principalCache.put(principal(9003L, "cache-old@example.com"));
+        principalCache.put(principal(9003L, "cache-new@example.com"));
+
+        assertThat(principalCache.get("cache-old@example.com")).isEmpty();
+
+        principalCache.invalidateAccount(9003L);
+        assertThat(principalCache.get("cache-new@example.com")).isEmpty();
+    }
+
+    // Helper methods
+    private static AccountPrincipal principal(Long accountId, String email) {
+        return new AccountPrincipal(accountId, accountId, "90000000000" + (accountId % 10),
+                KycStatus.AccountStatus.ACTIVE, email);
+    }
+}
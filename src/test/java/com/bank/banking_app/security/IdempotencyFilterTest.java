@@ -0,0 +1,309 @@
+package com.bank.banking_app.security;
+
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.IdempotencyStatus;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.IdempotencyRecord;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.IdempotencyRecordRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.service.IdempotencyService;
+import com.bank.banking_app.service.IdempotencyService.Decision;
+import com.bank.banking_app.service.IdempotencyService.Outcome;
+import com.bank.banking_app.service.IdempotencyService.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for IdempotencyFilter
+ * Tests that retried deposits with the same Idempotency-Key move money once,
+ * and that a request which ran never has its claim released
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private static final String TEST_EMAIL = "idempotent@example.com";
+    private Account account;
+    private String bearer;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        account = createUserWithActiveAccount();
+        bearer = "Bearer " + JwtUtil.generateToken(TEST_EMAIL);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyRecordRepository.deleteAll();
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Retrying a deposit with the same key should replay the response and credit once")
+    void deposit_RetriedWithSameKey_ShouldCreditOnce() throws Exception {
+        // When
+        mockMvc.perform(deposit("100.00").header(IdempotencyFilter.HEADER, "key-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andExpect(content().string("Deposit successful"));
+
+        mockMvc.perform(deposit("100.00").header(IdempotencyFilter.HEADER, "key-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andExpect(content().string("Deposit successful"));
+
+        // Then
+        assertThat(balance()).isEqualByComparingTo("1100.00");
+        assertThat(transactionRepository.count()).isEqualTo(1);
+
+        IdempotencyRecord record = idempotencyRecordRepository
+                .findByUserIdAndIdempotencyKey(account.getUser().getId(), "key-1").orElseThrow();
+        assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+        assertThat(record.getResponseStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Reusing a key for a different request should be rejected")
+    void deposit_WithKeyReusedForDifferentBody_ShouldReturnUnprocessable() throws Exception {
+        // Given
+        mockMvc.perform(deposit("100.00").header(IdempotencyFilter.HEADER, "key-2"))
+                .andExpect(status().isOk());
+
+        // When / Then
+        mockMvc.perform(deposit("250.00").header(IdempotencyFilter.HEADER, "key-2"))
+                .andExpect(status().isUnprocessableContent());
+        assertThat(balance()).isEqualByComparingTo("1100.00");
+    }
+
+    @Test
+    @DisplayName("Requests without a key should not be deduplicated")
+    void deposit_WithoutKey_ShouldRunEveryTime() throws Exception {
+        // When
+        mockMvc.perform(deposit("100.00")).andExpect(status().isOk());
+        mockMvc.perform(deposit("100.00")).andExpect(status().isOk());
+
+        // Then
+        assertThat(balance()).isEqualByComparingTo("1200.00");
+        assertThat(idempotencyRecordRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("A request that ran but whose result could not be stored should keep its claim")
+    void proceed_WhenCompleteFails_ShouldNotReleaseTheClaim() throws Exception {
+        // Given
+        RecordingIdempotencyService service = new RecordingIdempotencyService(true);
+
+        // When
+        MockHttpServletResponse response = runFilter(service, "Deposit successful");
+
+        // Then
+        assertThat(service.released).isFalse();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("Deposit successful");
+    }
+
+    @Test
+    @DisplayName("A response too large to store should still complete the claim, without its body")
+    void proceed_WithOversizedBody_ShouldCompleteWithStatusOnly() throws Exception {
+        // Given
+        RecordingIdempotencyService service = new RecordingIdempotencyService(false);
+
+        // When
+        MockHttpServletResponse response = runFilter(service, "x".repeat(5000));
+
+        // Then
+        assertThat(service.released).isFalse();
+        assertThat(service.completed.status()).isEqualTo(200);
+        assertThat(service.completed.body()).isNull();
+        assertThat(response.getContentAsString()).hasSize(5000);
+    }
+
+    @Test
+    @DisplayName("A non-blocking reader should get the buffered body through its ReadListener")
+    void proceed_WithReadListener_ShouldDeliverBufferedBody() throws Exception {
+        // Given
+        RecordingIdempotencyService service = new RecordingIdempotencyService(false);
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        // When
+        runFilter(service, (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[8];
+                    while (in.isReady() && !in.isFinished()) {
+                        int n = in.read(buffer);
+                        if (n > 0)
+                            read.write(buffer, 0, n);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        // Then
+        assertThat(allDataRead).isTrue();
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"amount\": 100.00}");
+    }
+
+    private MockHttpServletRequestBuilder deposit(String amount) {
+        return post("/api/transactions/deposit")
+                .header("Authorization", bearer)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": " + amount + "}");
+    }
+
+    private BigDecimal balance() {
+        return accountRepository.findBalanceById(account.getId()).orElseThrow();
+    }
+
+    // Runs the filter alone around a handler that commits and answers 200
+    private MockHttpServletResponse runFilter(IdempotencyService service, String responseBody) throws Exception {
+        return runFilter(service, (req, res) -> res.getOutputStream().write(responseBody.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private MockHttpServletResponse runFilter(IdempotencyService service, FilterChain handler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/transactions/deposit");
+        request.addHeader(IdempotencyFilter.HEADER, "key-unit");
+        request.setContent("{\"amount\": 100.00}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AccountPrincipal principal = new AccountPrincipal(1L, 1L, "500000000001",
+                KycStatus.AccountStatus.ACTIVE, TEST_EMAIL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+        try {
+            new IdempotencyFilter(service).doFilter(request, response, handler);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+
+    private static class RecordingIdempotencyService extends IdempotencyService {
+
+        private final boolean failComplete;
+        private StoredResponse completed;
+        private boolean released;
+
+        RecordingIdempotencyService(boolean failComplete) {
+            super(null, null, Duration.ofHours(1), 10);
+            this.failComplete = failComplete;
+        }
+
+        @Override
+        public Outcome begin(Long userId, String key, String requestHash) {
+            return new Outcome(Decision.PROCEED, null);
+        }
+
+        @Override
+        public void complete(Long userId, String key, StoredResponse response) {
+            if (failComplete)
+                throw new IllegalStateException("Database unavailable");
+            completed = response;
+        }
+
+        @Override
+        public void release(Long userId, String key) {
+            released = true;
+        }
+    }
+
+    private Account createUserWithActiveAccount() {
+        Users user = Users.builder()
+                .fullName("Idempotent User")
+                .email(TEST_EMAIL)
+                .phone("9555555555")
+                .password("password")
+                .aadhaarNumber("555555555555")
+                .panCardNumber("IDEMP1234C")
+                .kycStatus(KycStatus.VERIFIED)
+                .build();
+        user = userRepository.save(user);
+
+        Account newAccount = Account.builder()
+                .accountNumber("500000000001")
+                .accountType(AccountType.SAVINGS)
+                .balance(new BigDecimal("1000.00"))
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build();
+        return accountRepository.save(newAccount);
+    }
+}
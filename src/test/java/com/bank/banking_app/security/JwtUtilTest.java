@@ -1,9 +1,12 @@
 package com.bank.banking_app.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
  * Unit tests for JwtUtil class
@@ -112,4 +115,33 @@ class JwtUtilTest {
         // Then
         assertThat(token1).isNotEqualTo(token2);
     }
+
+    @Test
+    @DisplayName("verify should return the claims and serve repeat calls from the cache")
+    void verify_ShouldReturnClaims_AndCacheRepeatCalls() {
+        // Given
+        String token = JwtUtil.generateToken(TEST_EMAIL);
+
+        // When
+        Claims first = JwtUtil.verify(token);
+        Claims second = JwtUtil.verify(token);
+
+        // Then
+        assertThat(first.getSubject()).isEqualTo(TEST_EMAIL);
+        assertThat(first.getExpiration()).isInTheFuture();
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("verify should reject a tampered copy of an already verified token")
+    void verify_ShouldRejectTamperedToken_AfterOriginalWasCached() {
+        // Given
+        String token = JwtUtil.generateToken(TEST_EMAIL);
+        JwtUtil.verify(token);
+        String tamperedToken = token.substring(0, token.length() - 5) + "XXXXX";
+
+        // When / Then
+        assertThatThrownBy(() -> JwtUtil.verify(tamperedToken))
+                .isInstanceOf(JwtException.class);
+    }
 }
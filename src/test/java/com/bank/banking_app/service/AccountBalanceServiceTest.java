@@ -0,0 +1,243 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.dto.request.WithDrawRequest;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.LedgerBook;
+import com.bank.banking_app.enums.TransactionType;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.AccountBalanceSlot;
+import com.bank.banking_app.models.LedgerEntry;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountBalanceSlotRepository;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.JwtUtil;
+import com.bank.banking_app.security.OperatorTokenFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for AccountBalanceService
+ * Tests that credits to a hot account spread over its slots, that debits
+ * sweep the slots back, and that the owner and the ledger both see the sum
+ */
+@SpringBootTest(properties = {
+        "banking.ledger.snapshot-min-entries=1",
+        "banking.operator-token=" + AccountBalanceServiceTest.OPERATOR_TOKEN
+})
+@AutoConfigureMockMvc
+class AccountBalanceServiceTest {
+
+    static final String OPERATOR_TOKEN = "test-operator-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountBalanceService balanceService;
+
+    @Autowired
+    private DepositService depositService;
+
+    @Autowired
+    private WithDrawService withDrawService;
+
+    @Autowired
+    private MeService meService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceSlotRepository slotRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private static final String MERCHANT_EMAIL = "merchant@example.com";
+    private static final int SLOTS = 4;
+    private Account merchant;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        merchant = createAccount();
+        balanceService.enableHotMode(merchant.getId(), SLOTS);
+        setSecurityContext(MERCHANT_EMAIL);
+    }
+
+    // Not @Transactional: concurrent credits need committed rows to race on,
+    // so clean up explicitly for the suites that follow.
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+        slotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Concurrent credits should land on the slots, not the account row")
+    void credit_Concurrently_ShouldSpreadOverSlots() throws Exception {
+        int credits = 40;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(SLOTS)) {
+            for (int i = 0; i < credits; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    depositService.credit(merchant.getId(), new BigDecimal("10.00"), LedgerBook.CASH);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results)
+                result.get();
+        }
+
+        assertThat(accountRepository.findBalanceById(merchant.getId()).orElseThrow()).isEqualByComparingTo("0.00");
+        List<AccountBalanceSlot> slots = slotRepository.findByAccountId(merchant.getId());
+        assertThat(slots).hasSize(SLOTS);
+        assertThat(slots.stream().mapToLong(AccountBalanceSlot::getLedgerSeq).sum()).isEqualTo(credits);
+        assertThat(slots).filteredOn(s -> s.getLedgerSeq() > 0).hasSizeGreaterThan(1);
+        assertThat(slotRepository.sumBalance(merchant.getId())).isEqualByComparingTo("400.00");
+        assertThat(meService.me().getBalance()).isEqualByComparingTo("400.00");
+        assertThat(ledgerService.rebuildBalance(merchant.getId())).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    @DisplayName("A withdrawal larger than the account row should sweep the slots first")
+    void withdraw_ShortAccountRow_ShouldSweepSlots() {
+        // Given
+        for (int i = 0; i < 8; i++)
+            depositService.credit(merchant.getId(), new BigDecimal("25.00"), LedgerBook.CASH);
+        ledgerService.takeSnapshots();
+
+        // When
+        WithDrawRequest request = new WithDrawRequest();
+        request.setAmount(new BigDecimal("150.00"));
+        withDrawService.withDraw(request);
+
+        // Then
+        assertThat(accountRepository.findBalanceById(merchant.getId()).orElseThrow()).isEqualByComparingTo("50.00");
+        assertThat(slotRepository.sumBalance(merchant.getId())).isEqualByComparingTo("0.00");
+        assertThat(meService.me().getBalance()).isEqualByComparingTo("50.00");
+
+        List<LedgerEntry> sweep = ledgerEntryRepository.findAll().stream()
+                .filter(e -> e.getEntryType() == TransactionType.SWEEP)
+                .toList();
+        assertThat(sweep).filteredOn(e -> e.getSlot() == 0).singleElement()
+                .extracting(LedgerEntry::getAmount)
+                .satisfies(amount -> assertThat(amount).isEqualByComparingTo("200.00"));
+        assertThat(sweep.stream().map(LedgerEntry::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo("0");
+        assertThat(ledgerService.rebuildBalance(merchant.getId())).isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    @DisplayName("Hot slots should only ever be added")
+    void enableHotMode_Shrinking_ShouldThrow() {
+        balanceService.enableHotMode(merchant.getId(), SLOTS + 2);
+        assertThat(slotRepository.findByAccountId(merchant.getId())).hasSize(SLOTS + 2);
+
+        assertThatThrownBy(() -> balanceService.enableHotMode(merchant.getId(), SLOTS))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Operators should add hot slots by account number; customers should be refused")
+    void hotSlotsEndpoint_ShouldOnlyServeTheOperator() throws Exception {
+        mockMvc.perform(put("/api/accounts/hot-slots/" + merchant.getAccountNumber())
+                        .param("slots", String.valueOf(SLOTS + 1))
+                        .header("Authorization", "Bearer " + JwtUtil.generateToken(MERCHANT_EMAIL)))
+                .andExpect(status().isForbidden());
+        assertThat(slotRepository.findByAccountId(merchant.getId())).hasSize(SLOTS);
+
+        mockMvc.perform(put("/api/accounts/hot-slots/" + merchant.getAccountNumber())
+                        .param("slots", String.valueOf(SLOTS + 1))
+                        .header(OperatorTokenFilter.HEADER, OPERATOR_TOKEN))
+                .andExpect(status().isOk());
+        assertThat(slotRepository.findByAccountId(merchant.getId())).hasSize(SLOTS + 1);
+        assertThat(balanceService.slotsOf(merchant.getId())).isEqualTo(SLOTS + 1);
+
+        mockMvc.perform(put("/api/accounts/hot-slots/" + merchant.getAccountNumber())
+                        .param("slots", String.valueOf(SLOTS))
+                        .header(OperatorTokenFilter.HEADER, OPERATOR_TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Helper methods
+    private void setSecurityContext(String email) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>()));
+        SecurityContextHolder.setContext(context);
+    }
+
+    private Account createAccount() {
+        Users user = userRepository.save(Users.builder()
+                .fullName("Hot Merchant")
+                .email(MERCHANT_EMAIL)
+                .phone("9535353535")
+                .password("merchantpass")
+                .aadhaarNumber("535353535353")
+                .panCardNumber("HOTMA1234A")
+                .kycStatus(KycStatus.VERIFIED)
+                .build());
+
+        return accountRepository.save(Account.builder()
+                .accountNumber("530000000001")
+                .accountType(AccountType.CURRENT)
+                .balance(BigDecimal.ZERO)
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build());
+    }
+}
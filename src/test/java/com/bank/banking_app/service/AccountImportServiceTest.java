@@ -0,0 +1,276 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.dto.response.AccountImportRowError;
+import com.bank.banking_app.dto.response.AccountImportSummary;
+import com.bank.banking_app.enums.AccountImportStatus;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.JwtUtil;
+import com.bank.banking_app.security.OperatorTokenFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for AccountImportService
+ * Tests that an import creates the valid rows chunk by chunk, reports the
+ * rest row by row, resumes from its checkpoint after a failure, and is only
+ * open to the operator token
+ */
+@SpringBootTest(properties = {
+        "banking.account-import.enabled=true",
+        "banking.account-import.chunk-size=2",
+        "banking.operator-token=" + AccountImportServiceTest.OPERATOR_TOKEN
+})
+@AutoConfigureMockMvc
+class AccountImportServiceTest {
+
+    private static final String HEADER = AccountImportService.CSV_HEADER + "\n";
+    static final String OPERATOR_TOKEN = "test-operator-token";
+    private static final String CUSTOMER_EMAIL = "existing@example.com";
+
+    @Autowired
+    private AccountImportService accountImportService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        createCustomer();
+    }
+
+    // Not @Transactional: every chunk commits on its own, so clean up
+    // explicitly for the suites that follow.
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+        jdbcTemplate.update("delete from account_import_jobs");
+    }
+
+    @Test
+    @DisplayName("A CSV import should create the valid rows and stream an error per rejected row")
+    void importCsv_MixedFile_ShouldCreateValidRowsAndReportTheRest() throws Exception {
+        String csv = HEADER
+                + row("import1@example.com", "9570000001", "570000000001", "IMPRA1234A", "SAVINGS", "1000.00")
+                + row("import2@example.com", "9570000002", "570000000002", "IMPRB1234B", "CURRENT", "2500.50")
+                + row("import3@example.com", "1234", "570000000003", "IMPRC1234C", "SAVINGS", "100.00")
+                + row(CUSTOMER_EMAIL, "9570000004", "570000000004", "IMPRD1234D", "SAVINGS", "100.00")
+                + row("import6@example.com", "9570000006", "570000000006", "IMPRF1234F", "SAVINGS", "100.00")
+                + row("import7@example.com", "9570000007", "570000000007", "IMPRF1234F", "SAVINGS", "100.00")
+                + row("import8@example.com", "9570000001", "570000000008", "IMPRH1234H", "SAVINGS", "100.00")
+                + "oops\n";
+
+        String body = mockMvc.perform(post("/api/accounts/import/branch-042")
+                        .header(OperatorTokenFilter.HEADER, OPERATOR_TOKEN)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(6);
+        assertThat(lines.get(0)).contains("\"line\":4", "phone:");
+        assertThat(lines.get(1)).contains("\"line\":5", "Email already exists");
+        assertThat(lines.get(2)).contains("\"line\":7", "PAN already exists");
+        assertThat(lines.get(3)).contains("\"line\":8", "Phone already exists");
+        assertThat(lines.get(4)).contains("\"line\":9", "Expected 8 columns, found 1");
+        assertThat(lines.get(5)).contains("\"status\":\"COMPLETED\"", "\"imported\":3", "\"rejected\":5");
+
+        Users imported = userRepository.findByEmail("import2@example.com").orElseThrow();
+        assertThat(passwordEncoder.matches("password123", imported.getPassword())).isTrue();
+        Account account = accountRepository.findByUser(imported).orElseThrow();
+        assertThat(account.getAccountType()).isEqualTo(AccountType.CURRENT);
+        assertThat(account.getAccountNumber()).hasSize(12);
+        assertThat(ledgerService.rebuildBalance(account.getId())).isEqualByComparingTo("2500.50");
+        assertThat(userRepository.findByEmail("import6@example.com")).isPresent();
+        assertThat(userRepository.findByEmail("import7@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("An import cut off part way should resume from its last committed chunk")
+    void importCsv_AfterFailure_ShouldResumeFromCheckpoint() throws Exception {
+        String csv = HEADER
+                + row("resume1@example.com", "9580000001", "580000000001", "RESMA1234A", "SAVINGS", "100.00")
+                + row("resume2@example.com", "9580000002", "580000000002", "RESMB1234B", "SAVINGS", "200.00")
+                + row("resume3@example.com", "9580000003", "580000000003", "RESMC1234C", "SAVINGS", "300.00")
+                + row("resume4@example.com", "9580000004", "580000000004", "RESMD1234D", "SAVINGS", "400.00");
+        // The connection drops half way through line 4
+        String sent = csv.substring(0, csv.indexOf("resume3@example.com"));
+
+        assertThatThrownBy(() -> accountImportService.importCsv("resume-job", failingAfter(sent), errors -> { }))
+                .isInstanceOf(IOException.class);
+        assertThat(userRepository.findByEmail("resume2@example.com")).isPresent();
+        assertThat(userRepository.findByEmail("resume3@example.com")).isEmpty();
+
+        List<AccountImportRowError> errors = new ArrayList<>();
+        AccountImportSummary summary = accountImportService.importCsv("resume-job", stream(csv), errors::addAll);
+
+        assertThat(errors).isEmpty();
+        assertThat(summary.getStatus()).isEqualTo(AccountImportStatus.COMPLETED);
+        assertThat(summary.getImported()).isEqualTo(4);
+        assertThat(summary.getCheckpointLine()).isEqualTo(5);
+        assertThat(userRepository.findByEmail("resume4@example.com")).isPresent();
+        // 4 imported plus the existing customer: nothing was imported twice
+        assertThat(userRepository.count()).isEqualTo(5);
+
+        // A completed job only checks it is the same file
+        AccountImportSummary again = accountImportService.importCsv("resume-job", stream(csv), errors::addAll);
+        assertThat(again.getImported()).isEqualTo(4);
+        assertThat(userRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Re-running a job with a different file should be refused, before or after it completes")
+    void importCsv_ResumeWithDifferentFile_ShouldBeRefused() throws Exception {
+        String csv = HEADER
+                + row("other1@example.com", "9600000001", "600000000001", "OTHRA1234A", "SAVINGS", "100.00")
+                + row("other2@example.com", "9600000002", "600000000002", "OTHRB1234B", "SAVINGS", "200.00")
+                + row("other3@example.com", "9600000003", "600000000003", "OTHRC1234C", "SAVINGS", "300.00");
+        String sent = csv.substring(0, csv.indexOf("other3@example.com"));
+        assertThatThrownBy(() -> accountImportService.importCsv("other-job", failingAfter(sent), errors -> { }))
+                .isInstanceOf(IOException.class);
+
+        // Same length, one settled line changed
+        String edited = csv.replace("200.00", "900.00");
+        assertThatThrownBy(() -> accountImportService.importCsv("other-job", stream(edited), errors -> { }))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("different file");
+        assertThat(userRepository.findByEmail("other3@example.com")).isEmpty();
+
+        accountImportService.importCsv("other-job", stream(csv), errors -> { });
+        String longer = csv + row("other4@example.com", "9600000004", "600000000004", "OTHRD1234D", "SAVINGS", "400.00");
+        assertThatThrownBy(() -> accountImportService.importCsv("other-job", stream(longer), errors -> { }))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> accountImportService.importCsv("other-job", stream(HEADER), errors -> { }))
+                .isInstanceOf(BadRequestException.class);
+
+        mockMvc.perform(post("/api/accounts/import/other-job")
+                        .header(OperatorTokenFilter.HEADER, OPERATOR_TOKEN)
+                        .contentType("text/csv")
+                        .content(edited))
+                .andExpect(status().isBadRequest());
+        assertThat(userRepository.findByEmail("other4@example.com")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A customer token, or a wrong operator token, should be refused before anything is imported")
+    void importCsv_WithoutOperatorToken_ShouldBeForbidden() throws Exception {
+        String csv = HEADER
+                + row("forbidden1@example.com", "9590000001", "590000000001", "FORBA1234A", "SAVINGS", "1000000.00");
+
+        mockMvc.perform(post("/api/accounts/import/branch-043")
+                        .header("Authorization", "Bearer " + JwtUtil.generateToken(CUSTOMER_EMAIL))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/accounts/import/branch-043")
+                        .header(OperatorTokenFilter.HEADER, "not-" + OPERATOR_TOKEN)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isForbidden());
+
+        assertThat(userRepository.findByEmail("forbidden1@example.com")).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from account_import_jobs", Long.class)).isZero();
+    }
+
+    // Helper methods
+    private static String row(String email, String phone, String aadhaar, String pan, String type, String deposit) {
+        return String.join(",", "Imported Customer", email, phone, "password123", aadhaar, pan, type, deposit) + "\n";
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream failingAfter(String text) {
+        return new SequenceInputStream(stream(text), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+    }
+
+    private void createCustomer() {
+        Users user = userRepository.save(Users.builder()
+                .fullName("Existing Customer")
+                .email(CUSTOMER_EMAIL)
+                .phone("9570000000")
+                .password("operatorpass")
+                .aadhaarNumber("570000000000")
+                .panCardNumber("EXIST1234A")
+                .kycStatus(KycStatus.VERIFIED)
+                .build());
+        accountRepository.save(Account.builder()
+                .accountNumber("570000000000")
+                .accountType(AccountType.SAVINGS)
+                .balance(BigDecimal.ZERO)
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build());
+    }
+}
@@ -16,6 +16,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -139,13 +140,36 @@ class AuthServiceTest {
                 .hasMessageContaining("not Active");
     }
 
+    @Test
+    @DisplayName("Login with a hash below the configured cost should rehash the password")
+    void login_WithWeakHash_ShouldUpgradeHash() {
+        // Given: stored at cost 4, tests run at cost 5
+        createUserWithActiveAccount(new BCryptPasswordEncoder(4).encode(TEST_PASSWORD));
+        LoginRequest request = new LoginRequest();
+        request.setIdentifier(TEST_EMAIL);
+        request.setPassword(TEST_PASSWORD);
+
+        // When
+        authService.login(request);
+
+        // Then
+        String stored = userRepository.findByEmail(TEST_EMAIL).orElseThrow().getPassword();
+        assertThat(stored).startsWith("$2a$05$");
+        assertThat(passwordEncoder.matches(TEST_PASSWORD, stored)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(stored)).isFalse();
+    }
+
     // Helper methods
     private void createUserWithActiveAccount() {
+        createUserWithActiveAccount(passwordEncoder.encode(TEST_PASSWORD));
+    }
+
+    private void createUserWithActiveAccount(String passwordHash) {
         Users user = Users.builder()
                 .fullName("Auth Test User")
                 .email(TEST_EMAIL)
                 .phone(TEST_PHONE)
-                .password(passwordEncoder.encode(TEST_PASSWORD))
+                .password(passwordHash)
                 .aadhaarNumber("111122223333")
                 .panCardNumber("AUTHP1234A")
                 .kycStatus(KycStatus.VERIFIED)
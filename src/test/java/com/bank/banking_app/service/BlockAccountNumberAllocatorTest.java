@@ -0,0 +1,125 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for BlockAccountNumberAllocator
+ * Tests the Luhn check digit, uniqueness under concurrent allocation across
+ * several blocks, and that numbers already in use are skipped
+ */
+@SpringBootTest
+class BlockAccountNumberAllocatorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private Users user;
+
+    @AfterEach
+    void cleanUp() {
+        if (user != null) {
+            accountRepository.findByUser(user).ifPresent(accountRepository::delete);
+            userRepository.delete(user);
+        }
+    }
+
+    @Test
+    @DisplayName("Check digit should follow the Luhn algorithm")
+    void checkDigit_ShouldBeLuhn() {
+        assertThat(BlockAccountNumberAllocator.checkDigit(7992739871L)).isEqualTo(3);
+        assertThat(BlockAccountNumberAllocator.format(7992739871L)).isEqualTo("79927398713");
+        assertThat(BlockAccountNumberAllocator.isValid("79927398713")).isTrue();
+        assertThat(BlockAccountNumberAllocator.isValid("79927398710")).isFalse();
+        assertThat(BlockAccountNumberAllocator.isValid("7992739871a")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Concurrent callers should get distinct, valid 12-digit numbers across block refills")
+    void next_Concurrently_ShouldNeverRepeat() throws Exception {
+        BlockAccountNumberAllocator allocator = new BlockAccountNumberAllocator(jdbcTemplate, transactionManager, 10);
+
+        List<Future<List<String>>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    List<String> numbers = new ArrayList<>();
+                    for (int i = 0; i < 50; i++)
+                        numbers.add(allocator.next());
+                    return numbers;
+                }));
+            }
+        }
+
+        Set<String> all = new HashSet<>();
+        for (Future<List<String>> result : results)
+            all.addAll(result.get());
+        assertThat(all).hasSize(400);
+        assertThat(all).allSatisfy(number -> {
+            assertThat(number).hasSize(12);
+            assertThat(BlockAccountNumberAllocator.isValid(number)).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("A number already held by an account should be skipped")
+    void next_WithNumberInUse_ShouldSkipIt() {
+        long start = jdbcTemplate.queryForObject("select next_val from id_generators where gen_name = ?",
+                Long.class, BlockAccountNumberAllocator.GENERATOR);
+        createAccount(BlockAccountNumberAllocator.format(start + 1));
+        BlockAccountNumberAllocator allocator = new BlockAccountNumberAllocator(jdbcTemplate, transactionManager, 5);
+
+        assertThat(allocator.next()).isEqualTo(BlockAccountNumberAllocator.format(start));
+        assertThat(allocator.next()).isEqualTo(BlockAccountNumberAllocator.format(start + 2));
+    }
+
+    private void createAccount(String accountNumber) {
+        user = userRepository.save(Users.builder()
+                .fullName("Allocator Test User")
+                .email("allocator@example.com")
+                .phone("5600000001")
+                .password("password")
+                .aadhaarNumber("560000000001")
+                .panCardNumber("ALLOC1234A")
+                .kycStatus(KycStatus.VERIFIED)
+                .build());
+        accountRepository.save(Account.builder()
+                .accountNumber(accountNumber)
+                .accountType(AccountType.SAVINGS)
+                .balance(BigDecimal.ZERO)
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build());
+    }
+}
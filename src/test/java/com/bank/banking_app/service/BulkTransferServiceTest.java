@@ -0,0 +1,294 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.dto.request.TransferRequest;
+import com.bank.banking_app.dto.response.BulkTransferLineResult;
+import com.bank.banking_app.dto.response.BulkTransferSummary;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.BulkTransferLineStatus;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.exception.InsufficientBalanceException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.BalanceSnapshot;
+import com.bank.banking_app.models.LedgerEntry;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.IdempotencyFilter;
+import com.bank.banking_app.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for BulkTransferService
+ * Tests that a batch applies its valid lines chunk by chunk, reports every
+ * line, leaves balances and the ledger as single transfers would, and
+ * resumes a resubmitted batch after its last settled chunk
+ */
+@SpringBootTest(properties = "banking.transfer.batch.chunk-size=2")
+@AutoConfigureMockMvc
+class BulkTransferServiceTest {
+
+    @Autowired
+    private BulkTransferService bulkTransferService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String SENDER_EMAIL = "payroll@example.com";
+    private Account sender;
+    private Account first;
+    private Account second;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        sender = createAccount(SENDER_EMAIL, "9545454545", "545454545454", "BULKA1234A", "540000000001", "1000.00");
+        first = createAccount("employee1@example.com", "9555555551", "555555555551", "BULKB1234B", "550000000001", "0.00");
+        second = createAccount("employee2@example.com", "9555555552", "555555555552", "BULKC1234C", "550000000002", "0.00");
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(SENDER_EMAIL, null, new ArrayList<>()));
+        SecurityContextHolder.setContext(context);
+    }
+
+    // Not @Transactional: every chunk commits on its own, so clean up
+    // explicitly for the suites that follow.
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from bulk_transfer_batches");
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A batch should apply its valid lines and reject the rest line by line")
+    void transfer_MixedBatch_ShouldApplyValidLines() {
+        // Given
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(first.getAccountNumber(), new BigDecimal("100.00")),
+                new TransferRequest("559999999999", new BigDecimal("10.00")),
+                new TransferRequest(second.getAccountNumber(), new BigDecimal("200.00")),
+                new TransferRequest(sender.getAccountNumber(), new BigDecimal("10.00")),
+                new TransferRequest(first.getAccountNumber(), new BigDecimal("50.00")),
+                new TransferRequest(second.getAccountNumber(), BigDecimal.ZERO));
+        List<List<BulkTransferLineResult>> chunks = new ArrayList<>();
+
+        // When
+        BulkTransferSummary summary = bulkTransferService.transfer("payroll-1", requests, chunks::add);
+
+        // Then
+        assertThat(chunks).hasSize(3);
+        List<BulkTransferLineResult> results = chunks.stream().flatMap(List::stream).toList();
+        assertThat(results).extracting(BulkTransferLineResult::getLine).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(results).extracting(BulkTransferLineResult::getStatus).containsExactly(
+                BulkTransferLineStatus.SUCCESS, BulkTransferLineStatus.REJECTED,
+                BulkTransferLineStatus.SUCCESS, BulkTransferLineStatus.REJECTED,
+                BulkTransferLineStatus.SUCCESS, BulkTransferLineStatus.REJECTED);
+        assertThat(results.get(1).getError()).isEqualTo("Receiver account not found");
+        assertThat(results.get(3).getError()).isEqualTo("Cannot transfer to same account");
+
+        assertThat(summary.getSucceeded()).isEqualTo(3);
+        assertThat(summary.getRejected()).isEqualTo(3);
+        assertThat(summary.getTotalDebited()).isEqualByComparingTo("350.00");
+
+        assertBalance(sender, "650.00");
+        assertBalance(first, "150.00");
+        assertBalance(second, "200.00");
+        assertThat(transactionRepository.count()).isEqualTo(6);
+
+        Map<String, List<LedgerEntry>> journals = ledgerEntryRepository.findAll().stream()
+                .collect(Collectors.groupingBy(LedgerEntry::getJournalId));
+        assertThat(journals).hasSize(3);
+        assertThat(ledgerEntryRepository.findAll())
+                .filteredOn(e -> sender.getId().equals(e.getAccountId()))
+                .extracting(LedgerEntry::getSeq)
+                .containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("A batch larger than the sender's balance should be refused before anything moves")
+    void transfer_OverBalance_ShouldThrow() {
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(first.getAccountNumber(), new BigDecimal("600.00")),
+                new TransferRequest(second.getAccountNumber(), new BigDecimal("600.00")));
+
+        assertThatThrownBy(() -> bulkTransferService.transfer("payroll-1", requests, chunk -> { }))
+                .isInstanceOf(InsufficientBalanceException.class);
+        assertBalance(sender, "1000.00");
+        assertThat(transactionRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("A CSV upload should stream one result per line and a summary")
+    void transferBatch_Csv_ShouldStreamNdjson() throws Exception {
+        String csv = "receiverAccountNumber,amount\n"
+                + first.getAccountNumber() + ",25.00\n"
+                + "not-a-line\n"
+                + second.getAccountNumber() + ",75.00\n";
+
+        String body = mockMvc.perform(post("/api/transactions/transfer/batch")
+                        .header("Authorization", "Bearer " + JwtUtil.generateToken(SENDER_EMAIL))
+                        .header(IdempotencyFilter.HEADER, "payroll-csv")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).contains("\"line\":1", "\"status\":\"SUCCESS\"");
+        assertThat(lines.get(1)).contains("\"line\":2", "\"status\":\"REJECTED\"");
+        assertThat(lines.get(3)).contains("\"succeeded\":2", "\"rejected\":1");
+        assertBalance(sender, "900.00");
+    }
+
+    @Test
+    @DisplayName("Resubmitting a batch cut off part way should resume after its last committed chunk")
+    void transfer_ResubmitAfterDisconnect_ShouldNotPayTwice() {
+        // Given
+        List<TransferRequest> requests = List.of(
+                new TransferRequest(first.getAccountNumber(), new BigDecimal("100.00")),
+                new TransferRequest(second.getAccountNumber(), new BigDecimal("200.00")),
+                new TransferRequest(first.getAccountNumber(), new BigDecimal("50.00")),
+                new TransferRequest("559999999999", new BigDecimal("10.00")));
+
+        // When: the client goes away once the first chunk has committed
+        assertThatThrownBy(() -> bulkTransferService.transfer("payroll-2", requests, chunk -> {
+            throw new UncheckedIOException(new IOException("Broken pipe"));
+        })).isInstanceOf(UncheckedIOException.class);
+        assertBalance(sender, "700.00");
+
+        List<BulkTransferLineResult> resumed = new ArrayList<>();
+        BulkTransferSummary summary = bulkTransferService.transfer("payroll-2", requests, resumed::addAll);
+
+        // Then
+        assertThat(resumed).extracting(BulkTransferLineResult::getLine).containsExactly(3, 4);
+        assertThat(summary.getSucceeded()).isEqualTo(3);
+        assertThat(summary.getRejected()).isEqualTo(1);
+        assertThat(summary.getTotalDebited()).isEqualByComparingTo("350.00");
+        assertBalance(sender, "650.00");
+        assertBalance(first, "150.00");
+        assertBalance(second, "200.00");
+
+        List<BulkTransferLineResult> replayed = new ArrayList<>();
+        assertThat(bulkTransferService.transfer("payroll-2", requests, replayed::addAll)).isEqualTo(summary);
+        assertThat(replayed).isEmpty();
+        assertBalance(sender, "650.00");
+        assertThat(transactionRepository.count()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("A batch without an Idempotency-Key, or reusing one for other lines, should be refused")
+    void transferBatch_MissingOrReusedKey_ShouldBeBadRequest() throws Exception {
+        String csv = first.getAccountNumber() + ",25.00\n";
+
+        bulkTransferService.transfer("payroll-3", BulkTransferService.parseCsv(csv), chunk -> { });
+
+        mockMvc.perform(post("/api/transactions/transfer/batch")
+                        .header("Authorization", "Bearer " + JwtUtil.generateToken(SENDER_EMAIL))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/transactions/transfer/batch")
+                        .header("Authorization", "Bearer " + JwtUtil.generateToken(SENDER_EMAIL))
+                        .header(IdempotencyFilter.HEADER, "payroll-3")
+                        .contentType("text/csv")
+                        .content(second.getAccountNumber() + ",25.00\n"))
+                .andExpect(status().isBadRequest());
+        assertBalance(sender, "975.00");
+    }
+
+    // Helper methods
+    private void assertBalance(Account account, String expected) {
+        assertThat(accountRepository.findBalanceById(account.getId()).orElseThrow()).isEqualByComparingTo(expected);
+        assertThat(ledgerService.rebuildBalance(account.getId())).isEqualByComparingTo(expected);
+    }
+
+    // Opened without ledger entries; the opening balance is adopted as a snapshot
+    private Account createAccount(String email, String phone, String aadhaar, String pan,
+                                  String accountNumber, String balance) {
+        Users user = userRepository.save(Users.builder()
+                .fullName("Bulk Test User")
+                .email(email)
+                .phone(phone)
+                .password("bulkpass")
+                .aadhaarNumber(aadhaar)
+                .panCardNumber(pan)
+                .kycStatus(KycStatus.VERIFIED)
+                .build());
+
+        Account account = accountRepository.save(Account.builder()
+                .accountNumber(accountNumber)
+                .accountType(AccountType.SAVINGS)
+                .balance(new BigDecimal(balance))
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build());
+        balanceSnapshotRepository.save(BalanceSnapshot.builder()
+                .accountId(account.getId())
+                .slot(0)
+                .balance(account.getBalance())
+                .seq(0)
+                .takenAt(LocalDateTime.now())
+                .build());
+        return account;
+    }
+}
@@ -0,0 +1,86 @@
+package com.bank.banking_app.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for HmacSha256Verifier
+ * Checks results against a plain javax.crypto HMAC, including under concurrent use of the Mac pool
+ */
+class HmacSha256VerifierTest {
+
+    private static final String SECRET = "rzp_test_secret";
+
+    private final HmacSha256Verifier verifier = new HmacSha256Verifier(SECRET, 2);
+
+    @Test
+    @DisplayName("Checkout signature over order|payment should verify")
+    void verify_WithValidCheckoutSignature_ShouldPass() throws Exception {
+        String signature = sign("order_123|pay_456");
+
+        assertThat(verifier.verify("order_123", "pay_456", signature)).isTrue();
+        assertThat(verifier.verify("order_123", "pay_456", signature.toUpperCase())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Tampered, truncated, non-hex or missing signatures should fail")
+    void verify_WithBadSignature_ShouldFail() throws Exception {
+        String signature = sign("order_123|pay_456");
+        String flipped = (signature.charAt(0) == '0' ? "1" : "0") + signature.substring(1);
+
+        assertThat(verifier.verify("order_123", "pay_457", signature)).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", flipped)).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", signature.substring(2))).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", "zz" + signature.substring(2))).isFalse();
+        assertThat(verifier.verify("order_123", "pay_456", null)).isFalse();
+        assertThat(verifier.verify(null, "pay_456", signature)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Long or non-ASCII ids and raw bodies should match the reference HMAC")
+    void verify_OffTheFastPath_ShouldMatchReference() throws Exception {
+        String longId = "order_" + "x".repeat(400);
+        String unicodeId = "order_₹";
+
+        assertThat(verifier.verify(longId, "pay_1", sign(longId + "|pay_1"))).isTrue();
+        assertThat(verifier.verify(unicodeId, "pay_1", sign(unicodeId + "|pay_1"))).isTrue();
+
+        byte[] body = "{\"event\":\"payment.captured\"}".getBytes(StandardCharsets.UTF_8);
+        assertThat(verifier.verify(body, sign(new String(body, StandardCharsets.UTF_8)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("More concurrent callers than pooled Macs should still verify correctly")
+    void verify_Concurrently_ShouldNotMixUpMacState() throws Exception {
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 2_000; i++) {
+                String paymentId = "pay_" + i;
+                String signature = sign("order_1|" + paymentId);
+                boolean valid = i % 3 != 0;
+                results.add(pool.submit(() ->
+                        verifier.verify("order_1", paymentId, valid ? signature : sign("other")) == valid));
+            }
+            for (Future<Boolean> result : results)
+                assertThat(result.get()).isTrue();
+        }
+    }
+
+    private static String sign(String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,212 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.dto.request.DepositRequest;
+import com.bank.banking_app.dto.request.TransferRequest;
+import com.bank.banking_app.dto.request.WithDrawRequest;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.LedgerBook;
+import com.bank.banking_app.enums.TransactionType;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.BalanceSnapshot;
+import com.bank.banking_app.models.LedgerEntry;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for LedgerService
+ * Tests that every balance change posts a balanced journal and that balances
+ * rebuilt from snapshots plus later entries match Account.balance
+ */
+@SpringBootTest(properties = "banking.ledger.snapshot-min-entries=3")
+@Transactional
+class LedgerServiceTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private DepositService depositService;
+
+    @Autowired
+    private WithDrawService withDrawService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private static final String SENDER_EMAIL = "ledger@example.com";
+    private Account sender;
+    private Account receiver;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        sender = createAccount(SENDER_EMAIL, "9515151515", "515151515151", "LEDGA1234A", "510000000001");
+        receiver = createAccount("ledger2@example.com", "9525252525", "525252525252", "LEDGB1234B", "520000000001");
+        setSecurityContext(SENDER_EMAIL);
+    }
+
+    @Test
+    @DisplayName("Deposit, withdraw and transfer should each post a journal that sums to zero")
+    void moneyMovement_ShouldPostBalancedJournals() {
+        // When
+        depositService.deposit(new DepositRequest(new BigDecimal("1000.00")));
+        withDrawService.withDraw(withDrawRequest("200.00"));
+        transferService.transfer(transferRequest("300.00"));
+
+        // Then
+        Map<String, List<LedgerEntry>> journals = ledgerEntryRepository.findAll().stream()
+                .collect(Collectors.groupingBy(LedgerEntry::getJournalId));
+        assertThat(journals).hasSize(3);
+        journals.values().forEach(legs -> assertThat(legs.stream()
+                .map(LedgerEntry::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)).isEqualByComparingTo("0"));
+
+        List<LedgerEntry> senderEntries = ledgerEntryRepository.findAll().stream()
+                .filter(e -> sender.getId().equals(e.getAccountId()))
+                .sorted((a, b) -> Long.compare(a.getSeq(), b.getSeq()))
+                .toList();
+        assertThat(senderEntries).extracting(LedgerEntry::getSeq).containsExactly(1L, 2L, 3L);
+        assertThat(senderEntries).extracting(LedgerEntry::getEntryType)
+                .containsExactly(TransactionType.DEPOSIT, TransactionType.WITHDRAW, TransactionType.TRANSFER);
+        assertThat(ledgerEntryRepository.findAll()).filteredOn(e -> e.getBook() == LedgerBook.CASH)
+                .extracting(LedgerEntry::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(new BigDecimal("-1000.00"), new BigDecimal("200.00"));
+
+        assertRebuiltMatchesProjection(sender, "500.00");
+        assertRebuiltMatchesProjection(receiver, "300.00");
+    }
+
+    @Test
+    @DisplayName("Rebuild should start from the snapshot and add only later entries")
+    void rebuild_AfterSnapshot_ShouldAddOnlyLaterEntries() {
+        // Given: three entries, enough for the scheduled snapshot
+        for (int i = 0; i < 3; i++)
+            depositService.deposit(new DepositRequest(new BigDecimal("100.00")));
+
+        // When
+        int taken = ledgerService.takeSnapshots();
+        depositService.deposit(new DepositRequest(new BigDecimal("50.00")));
+
+        // Then
+        assertThat(taken).isEqualTo(1);
+        BalanceSnapshot snapshot = balanceSnapshotRepository.findById(new BalanceSnapshot.Key(sender.getId(), 0)).orElseThrow();
+        assertThat(snapshot.getSeq()).isEqualTo(3);
+        assertThat(snapshot.getBalance()).isEqualByComparingTo("300.00");
+        assertRebuiltMatchesProjection(sender, "350.00");
+
+        // Entries at or before the snapshot are no longer read: altering one
+        // does not change the rebuilt balance.
+        LedgerEntry first = ledgerEntryRepository.findAll().stream()
+                .filter(e -> sender.getId().equals(e.getAccountId()) && e.getSeq() == 1)
+                .findFirst().orElseThrow();
+        ledgerEntryRepository.delete(first);
+        ledgerEntryRepository.flush();
+        assertThat(ledgerService.rebuildBalance(sender.getId())).isEqualByComparingTo("350.00");
+    }
+
+    @Test
+    @DisplayName("An unbalanced journal should be rejected")
+    void post_Unbalanced_ShouldThrow() {
+        assertThatThrownBy(() -> ledgerService.post(TransactionType.DEPOSIT,
+                LedgerService.Leg.customer(sender.getId(), 1, new BigDecimal("10.00")),
+                LedgerService.Leg.external(LedgerBook.CASH, new BigDecimal("-9.99"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unbalanced");
+    }
+
+    // Helper methods
+    private void assertRebuiltMatchesProjection(Account account, String expected) {
+        BigDecimal projected = accountRepository.findBalanceById(account.getId()).orElseThrow();
+        assertThat(projected).isEqualByComparingTo(expected);
+        assertThat(ledgerService.rebuildBalance(account.getId())).isEqualByComparingTo(projected);
+    }
+
+    private static WithDrawRequest withDrawRequest(String amount) {
+        WithDrawRequest request = new WithDrawRequest();
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    private TransferRequest transferRequest(String amount) {
+        TransferRequest request = new TransferRequest();
+        request.setReceiverAccountNumber(receiver.getAccountNumber());
+        request.setAmount(new BigDecimal(amount));
+        return request;
+    }
+
+    private void setSecurityContext(String email) {
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>()));
+        SecurityContextHolder.setContext(context);
+    }
+
+    // Opened empty and without a snapshot, so the ledger alone explains the balance
+    private Account createAccount(String email, String phone, String aadhaar, String pan, String accountNumber) {
+        Users user = userRepository.save(Users.builder()
+                .fullName("Ledger Test User")
+                .email(email)
+                .phone(phone)
+                .password("ledgerpass")
+                .aadhaarNumber(aadhaar)
+                .panCardNumber(pan)
+                .kycStatus(KycStatus.VERIFIED)
+                .build());
+
+        return accountRepository.save(Account.builder()
+                .accountNumber(accountNumber)
+                .accountType(AccountType.SAVINGS)
+                .balance(BigDecimal.ZERO)
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build());
+    }
+}
@@ -13,14 +13,24 @@ import com.bank.banking_app.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Integration tests for OpenAccountService
@@ -33,9 +43,19 @@ class OpenAccountServiceTest {
     @Autowired
     private OpenAccountService openAccountService;
 
-    @Autowired
+    // Names given by V1, and by Hibernate's ddl-auto=update on databases adopted at V1
+    private static final List<String> V1_KEY_NAMES = List.of(
+            "uk_users_email", "uk_users_phone", "uk_users_aadhaar_number", "uk_users_pan_card_number");
+    private static final List<String> HIBERNATE_KEY_NAMES = List.of(
+            "uk6dotkott2kjsp8vw4d0m25fb7", "ukdu5v5sr43g5bfnji4vb8hg5s3",
+            "uk2q9xk4rhxu6ep3m4xtkk7k0ha", "ukr43af9ap4edm43mmtq01oddj6");
+
+    @MockitoSpyBean
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private AccountRepository accountRepository;
 
@@ -64,7 +84,7 @@ class OpenAccountServiceTest {
         assertThat(response.getAccountNumber()).hasSize(12);
 
         // Verify user was created
-        assertThat(userRepository.existsByEmail("newuser@example.com")).isTrue();
+        assertThat(userRepository.findByEmail("newuser@example.com")).isPresent();
 
         // Verify account was created with correct balance
         Users user = userRepository.findByEmail("newuser@example.com").get();
@@ -129,7 +149,39 @@ class OpenAccountServiceTest {
                 .hasMessageContaining("PAN already exists");
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("A sign-up racing past the check should get the duplicate message whatever the unique keys are named")
+    void openAccount_RacingSignUpOnAdoptedSchema_ShouldNameTheIdentifier() {
+        // Given: unique keys named as ddl-auto=update created them, and a user
+        // with the same PAN committed between the check and the insert
+        renameUserKeys(V1_KEY_NAMES, HIBERNATE_KEY_NAMES);
+        try {
+            createExistingUser();
+            Answer<?> real = mockingDetails(userRepository).getMockCreationSettings().getDefaultAnswer();
+            doReturn(List.of()).doAnswer(real)
+                    .when(userRepository).findTakenIdentifiers(any(), any(), any(), any());
+            OpenAccountRequest request = createOpenAccountRequest();
+            request.setPanCardNumber("EXIST1234A");
+
+            // When / Then
+            assertThatThrownBy(() -> openAccountService.openAccount(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessage("PAN already exists");
+            // Once before the insert (missing the racer), once after the violation
+            verify(userRepository, times(2)).findTakenIdentifiers(any(), any(), any(), any());
+        } finally {
+            userRepository.deleteAll();
+            renameUserKeys(HIBERNATE_KEY_NAMES, V1_KEY_NAMES);
+        }
+    }
+
     // Helper methods
+    private void renameUserKeys(List<String> from, List<String> to) {
+        for (int i = 0; i < from.size(); i++)
+            jdbcTemplate.execute("alter table users rename constraint " + from.get(i) + " to " + to.get(i));
+    }
+
     private OpenAccountRequest createOpenAccountRequest() {
         return OpenAccountRequest.builder()
                 .fullName("New Test User")
@@ -137,7 +189,7 @@ class OpenAccountServiceTest {
                 .phone("9876543210")
                 .password("password123")
                 .aadhaarNumber("123456789012")
-                .panCardNumber("NEWABC1234D")
+                .panCardNumber("NEWAB1234D")
                 .accountType(AccountType.SAVINGS)
                 .initialDeposit(new BigDecimal("5000.00"))
                 .build();
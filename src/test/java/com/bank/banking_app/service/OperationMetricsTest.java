@@ -0,0 +1,153 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.exception.InsufficientBalanceException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.UserRepository;
+import com.bank.banking_app.security.JwtUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for OperationMetrics
+ * Tests that money-movement calls are timed by outcome, that business rule
+ * rejections are counted, and that the Prometheus scrape is served. Tests
+ * run without a separate management port, so actuator is on the API port.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class OperationMetricsTest {
+
+    private static final String TEST_EMAIL = "metrics@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("A withdrawal over the balance should answer 400 and be recorded as insufficient_balance")
+    void withdraw_InsufficientBalance_ShouldRecordFailureReason() throws Exception {
+        createAccount();
+        long timedBefore = timed("withdraw", "insufficient_balance");
+        double countedBefore = counted("InsufficientBalanceException");
+
+        mockMvc.perform(post("/api/transactions/withdraw")
+                        .header("Authorization", "Bearer " + JwtUtil.generateToken(TEST_EMAIL))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 500.00}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Insufficient balance"));
+
+        assertThat(timed("withdraw", "insufficient_balance")).isEqualTo(timedBefore + 1);
+        assertThat(counted("InsufficientBalanceException")).isEqualTo(countedBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Deposits should be timed by outcome, including rejections for an inactive account")
+    void deposit_ShouldRecordSuccessAndAccountNotActive() throws Exception {
+        Account account = createAccount();
+        long succeededBefore = timed("deposit", "success");
+        long rejectedBefore = timed("deposit", "account_not_active");
+        double countedBefore = counted("AccountNotActiveException");
+
+        deposit().andExpect(status().isOk());
+        account.setStatus(KycStatus.AccountStatus.INACTIVE);
+        accountRepository.saveAndFlush(account);
+        deposit().andExpect(status().isForbidden());
+
+        assertThat(timed("deposit", "success")).isEqualTo(succeededBefore + 1);
+        assertThat(timed("deposit", "account_not_active")).isEqualTo(rejectedBefore + 1);
+        assertThat(counted("AccountNotActiveException")).isEqualTo(countedBefore + 1);
+    }
+
+    @Test
+    @DisplayName("On the API port the Prometheus scrape should need a token like the API")
+    void prometheus_OnApiPort_ShouldNeedAuth() throws Exception {
+        createAccount();
+        deposit().andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus")
+                        .header("Authorization", "Bearer " + JwtUtil.generateToken(TEST_EMAIL)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("banking_operation_seconds_bucket{")));
+    }
+
+    @Test
+    @DisplayName("Only the app's own exceptions should name a failure reason")
+    void reasonOf_ShouldKeepTagValuesBounded() {
+        assertThat(OperationMetrics.reasonOf(new InsufficientBalanceException("x"))).isEqualTo("insufficient_balance");
+        assertThat(OperationMetrics.reasonOf(new IllegalStateException("x"))).isEqualTo("error");
+    }
+
+    // Helper methods
+    private ResultActions deposit() throws Exception {
+        return mockMvc.perform(post("/api/transactions/deposit")
+                .header("Authorization", "Bearer " + JwtUtil.generateToken(TEST_EMAIL))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"amount\": 100.00}"));
+    }
+
+    private long timed(String operation, String outcome) {
+        Timer timer = meterRegistry.find(OperationMetrics.TIMER)
+                .tags("operation", operation, "outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private double counted(String exception) {
+        Counter counter = meterRegistry.find("banking.exceptions").tag("exception", exception).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private Account createAccount() {
+        Users user = userRepository.save(Users.builder()
+                .fullName("Metrics User")
+                .email(TEST_EMAIL)
+                .phone("9590000000")
+                .password("password")
+                .aadhaarNumber("590000000000")
+                .panCardNumber("METRC1234A")
+                .kycStatus(KycStatus.VERIFIED)
+                .build());
+        return accountRepository.save(Account.builder()
+                .accountNumber("590000000000")
+                .accountType(AccountType.SAVINGS)
+                .balance(BigDecimal.ZERO)
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build());
+    }
+}
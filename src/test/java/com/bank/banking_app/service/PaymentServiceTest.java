@@ -0,0 +1,205 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.dto.request.PaymentVerifyRequest;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.PaymentStatus;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Payment;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for PaymentService
+ * Tests that a verified payment credits its account exactly once
+ */
+@SpringBootTest
+class PaymentServiceTest {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Value("${razorpay.key.secret}")
+    private String keySecret;
+
+    private static final String ORDER_ID = "order_exactly_once";
+    private static final String PAYMENT_ID = "pay_exactly_once";
+    private Account testAccount;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+
+        createUserWithActiveAccount();
+        paymentRepository.save(Payment.builder()
+                .razorpayOrderId(ORDER_ID)
+                .amount(new BigDecimal("500.00"))
+                .status(PaymentStatus.CREATED)
+                .account(testAccount)
+                .build());
+    }
+
+    // Not @Transactional: concurrent callers need committed rows to race on,
+    // so clean up explicitly for the suites that follow.
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Verifying the same payment twice should credit once")
+    void verify_Twice_ShouldCreditOnce() {
+        PaymentVerifyRequest request = signedRequest();
+
+        assertThat(paymentService.verify(request)).isEqualTo(PaymentService.VerifyResult.CREDITED);
+        assertThat(paymentService.verify(request)).isEqualTo(PaymentService.VerifyResult.ALREADY_CREDITED);
+
+        assertBalance("10500.00");
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("A bad signature after success should not mark the payment failed")
+    void verify_BadSignatureAfterSuccess_ShouldKeepSuccess() {
+        paymentService.verify(signedRequest());
+
+        PaymentVerifyRequest forged = new PaymentVerifyRequest(ORDER_ID, PAYMENT_ID, "deadbeef");
+        assertThat(paymentService.verify(forged)).isEqualTo(PaymentService.VerifyResult.REJECTED);
+
+        Payment payment = paymentRepository.findByRazorpayOrderId(ORDER_ID).get();
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertBalance("10500.00");
+    }
+
+    @Test
+    @DisplayName("A bad signature should leave the payment pending so a genuine verify still credits it")
+    void verify_BadSignatureThenGood_ShouldCredit() {
+        PaymentVerifyRequest forged = new PaymentVerifyRequest(ORDER_ID, PAYMENT_ID, "deadbeef");
+        assertThat(paymentService.verify(forged)).isEqualTo(PaymentService.VerifyResult.REJECTED);
+        assertThat(paymentRepository.findByRazorpayOrderId(ORDER_ID).get().getStatus())
+                .isEqualTo(PaymentStatus.CREATED);
+
+        assertThat(paymentService.verify(signedRequest())).isEqualTo(PaymentService.VerifyResult.CREDITED);
+
+        assertBalance("10500.00");
+        assertThat(paymentRepository.findByRazorpayOrderId(ORDER_ID).get().getStatus())
+                .isEqualTo(PaymentStatus.SUCCESS);
+    }
+
+    @Test
+    @DisplayName("Concurrent verifies of one order should credit once")
+    void verify_Concurrently_ShouldCreditOnce() throws Exception {
+        int callers = 4;
+        PaymentVerifyRequest request = signedRequest();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentService.VerifyResult>> results = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return paymentService.verify(request);
+                }));
+            }
+            start.countDown();
+
+            int credited = 0;
+            for (Future<PaymentService.VerifyResult> result : results) {
+                if (result.get() == PaymentService.VerifyResult.CREDITED)
+                    credited++;
+            }
+            assertThat(credited).isEqualTo(1);
+        }
+
+        assertBalance("10500.00");
+        assertThat(transactionRepository.count()).isEqualTo(1);
+    }
+
+    // Helper methods
+    private PaymentVerifyRequest signedRequest() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(keySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] hash = mac.doFinal((ORDER_ID + "|" + PAYMENT_ID).getBytes(StandardCharsets.UTF_8));
+            return new PaymentVerifyRequest(ORDER_ID, PAYMENT_ID, HexFormat.of().formatHex(hash));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void assertBalance(String expected) {
+        Account account = accountRepository.findById(testAccount.getId()).get();
+        assertThat(account.getBalance().compareTo(new BigDecimal(expected))).isEqualTo(0);
+    }
+
+    private void createUserWithActiveAccount() {
+        Users user = Users.builder()
+                .fullName("Payment Test User")
+                .email("payment@example.com")
+                .phone("9414141414")
+                .password("paymentpass")
+                .aadhaarNumber("414141414141")
+                .panCardNumber("PAYMC1234C")
+                .kycStatus(KycStatus.VERIFIED)
+                .build();
+        user = userRepository.save(user);
+
+        testAccount = Account.builder()
+                .accountNumber("410000000001")
+                .accountType(AccountType.SAVINGS)
+                .balance(new BigDecimal("10000.00"))
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build();
+        testAccount = accountRepository.save(testAccount);
+    }
+}
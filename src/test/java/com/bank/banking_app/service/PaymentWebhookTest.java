@@ -0,0 +1,243 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.PaymentStatus;
+import com.bank.banking_app.enums.WebhookEventStatus;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Payment;
+import com.bank.banking_app.models.PaymentWebhookEvent;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.BalanceSnapshotRepository;
+import com.bank.banking_app.repository.LedgerEntryRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.PaymentWebhookEventRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for the Razorpay webhook inbox
+ * Tests that signed events are stored once and credit the account once when drained
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class PaymentWebhookTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentWebhookWorker worker;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private PaymentWebhookEventRepository eventRepository;
+
+    @Value("${razorpay.webhook.secret}")
+    private String webhookSecret;
+
+    @Value("${razorpay.webhook.max-attempts:5}")
+    private int maxAttempts;
+
+    private static final String ORDER_ID = "order_webhook";
+    private Account testAccount;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        createUserWithActiveAccount();
+        paymentRepository.save(Payment.builder()
+                .razorpayOrderId(ORDER_ID)
+                .amount(new BigDecimal("750.00"))
+                .status(PaymentStatus.CREATED)
+                .account(testAccount)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        eventRepository.deleteAll();
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A signed webhook should be acknowledged at once and credit when drained")
+    void webhook_ShouldAcknowledgeThenCreditOnDrain() throws Exception {
+        // When
+        send("evt_1", captured(ORDER_ID), sign(captured(ORDER_ID))).andExpect(status().isOk());
+
+        // Then: stored, but nothing credited until the worker runs
+        assertBalance("10000.00");
+        assertThat(eventRepository.findAll()).singleElement()
+                .extracting(PaymentWebhookEvent::getStatus).isEqualTo(WebhookEventStatus.PENDING);
+
+        worker.drain();
+
+        assertBalance("10750.00");
+        assertThat(paymentRepository.findByRazorpayOrderId(ORDER_ID).get().getStatus())
+                .isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(eventRepository.findAll()).singleElement()
+                .extracting(PaymentWebhookEvent::getStatus).isEqualTo(WebhookEventStatus.PROCESSED);
+    }
+
+    @Test
+    @DisplayName("Redelivered and overlapping events should credit once")
+    void webhook_Redelivered_ShouldCreditOnce() throws Exception {
+        String body = captured(ORDER_ID);
+        send("evt_1", body, sign(body)).andExpect(status().isOk());
+        send("evt_1", body, sign(body)).andExpect(status().isOk());
+        assertThat(eventRepository.count()).isEqualTo(1);
+
+        // order.paid follows payment.captured for the same order
+        String orderPaid = body.replace("payment.captured", "order.paid");
+        send("evt_2", orderPaid, sign(orderPaid)).andExpect(status().isOk());
+
+        worker.drain();
+
+        assertBalance("10750.00");
+        assertThat(transactionRepository.count()).isEqualTo(1);
+        assertThat(eventRepository.findAll())
+                .extracting(PaymentWebhookEvent::getStatus)
+                .containsOnly(WebhookEventStatus.PROCESSED);
+    }
+
+    @Test
+    @DisplayName("A failed attempt followed by a captured one should credit the order")
+    void webhook_FailedThenCaptured_ShouldCredit() throws Exception {
+        // The first card is declined, the customer pays with another method
+        String failed = captured(ORDER_ID).replace("payment.captured", "payment.failed")
+                .replace("\"captured\"", "\"failed\"");
+        send("evt_1", failed, sign(failed)).andExpect(status().isOk());
+        worker.drain();
+        assertThat(paymentRepository.findByRazorpayOrderId(ORDER_ID).get().getStatus())
+                .isEqualTo(PaymentStatus.CREATED);
+
+        String body = captured(ORDER_ID);
+        send("evt_2", body, sign(body)).andExpect(status().isOk());
+        worker.drain();
+
+        assertBalance("10750.00");
+        assertThat(paymentRepository.findByRazorpayOrderId(ORDER_ID).get().getStatus())
+                .isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(eventRepository.findAll())
+                .extracting(PaymentWebhookEvent::getStatus)
+                .containsOnly(WebhookEventStatus.PROCESSED);
+    }
+
+    @Test
+    @DisplayName("A webhook with a bad signature should be rejected and not stored")
+    void webhook_WithBadSignature_ShouldBeRejected() throws Exception {
+        send("evt_1", captured(ORDER_ID), "deadbeef").andExpect(status().isUnauthorized());
+
+        assertThat(eventRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("An event that keeps failing should end up FAILED after max attempts")
+    void webhook_ForUnknownOrder_ShouldFailAfterMaxAttempts() throws Exception {
+        String body = captured("order_unknown");
+        send("evt_1", body, sign(body)).andExpect(status().isOk());
+
+        for (int i = 0; i < maxAttempts; i++)
+            worker.drain();
+
+        PaymentWebhookEvent event = eventRepository.findAll().get(0);
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.FAILED);
+        assertThat(event.getAttempts()).isEqualTo(maxAttempts);
+        assertThat(event.getLastError()).contains("Payment not found");
+        assertBalance("10000.00");
+    }
+
+    // Helper methods
+    private ResultActions send(String eventId, String body, String signature)
+            throws Exception {
+        return mockMvc.perform(post("/api/payments/webhook")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("X-Razorpay-Event-Id", eventId)
+                .header("X-Razorpay-Signature", signature)
+                .content(body));
+    }
+
+    private static String captured(String orderId) {
+        return """
+                {"entity":"event","event":"payment.captured","payload":{"payment":{"entity":\
+                {"id":"pay_webhook","order_id":"%s","amount":75000,"status":"captured"}}}}""".formatted(orderId);
+    }
+
+    private String sign(String body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void assertBalance(String expected) {
+        Account account = accountRepository.findById(testAccount.getId()).get();
+        assertThat(account.getBalance().compareTo(new BigDecimal(expected))).isEqualTo(0);
+    }
+
+    private void createUserWithActiveAccount() {
+        Users user = Users.builder()
+                .fullName("Webhook Test User")
+                .email("webhook@example.com")
+                .phone("9424242424")
+                .password("webhookpass")
+                .aadhaarNumber("424242424242")
+                .panCardNumber("WEBHK1234C")
+                .kycStatus(KycStatus.VERIFIED)
+                .build();
+        user = userRepository.save(user);
+
+        testAccount = Account.builder()
+                .accountNumber("420000000001")
+                .accountType(AccountType.SAVINGS)
+                .balance(new BigDecimal("10000.00"))
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build();
+        testAccount = accountRepository.save(testAccount);
+    }
+}
@@ -0,0 +1,215 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.config.RazorpayConfig;
+import com.bank.banking_app.dto.response.RazorpayOrderResponse;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.exception.PaymentGatewayException;
+import com.bank.banking_app.exception.ServiceUnavailableException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for RazorpayService order creation against a local stub of the
+ * Razorpay Orders API: request shape, error mapping, timeouts, circuit
+ * breaker and bulkhead.
+ */
+class RazorpayServiceTest {
+
+    private static final String KEY_ID = "rzp_test_key";
+    private static final String KEY_SECRET = "rzp_test_secret";
+    private static final int FAILURE_THRESHOLD = 2;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicReference<StubResponse> stub = new AtomicReference<>();
+    private final AtomicReference<String> lastAuthorization = new AtomicReference<>();
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+
+    private HttpServer server;
+    private RazorpayService razorpayService;
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/v1/orders", this::handleOrder);
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/v1";
+        circuitBreaker = new CircuitBreaker("Payment gateway", FAILURE_THRESHOLD, Duration.ofMinutes(1),
+                1, PaymentGatewayException.class);
+        razorpayService = new RazorpayService(
+                new RazorpayConfig().razorpayHttpClient(Duration.ofSeconds(1)),
+                circuitBreaker, jsonMapper, baseUrl, Duration.ofMillis(300), KEY_ID, KEY_SECRET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("createOrder should post the amount in paise with basic auth and return the order id")
+    void createOrder_ShouldPostOrderAndReturnOrderId() {
+        // Given
+        stub.set(StubResponse.ok("{\"id\":\"order_TEST123\",\"entity\":\"order\"}"));
+
+        // When
+        RazorpayOrderResponse response = razorpayService.createOrder(new BigDecimal("499.50"));
+
+        // Then
+        assertThat(response.getOrderId()).isEqualTo("order_TEST123");
+        assertThat(response.getAmount()).isEqualByComparingTo("499.50");
+        assertThat(response.getCurrency()).isEqualTo("INR");
+        assertThat(response.getKey()).isEqualTo(KEY_ID);
+
+        String expectedAuth = "Basic " + Base64.getEncoder()
+                .encodeToString((KEY_ID + ":" + KEY_SECRET).getBytes(StandardCharsets.UTF_8));
+        assertThat(lastAuthorization.get()).isEqualTo(expectedAuth);
+
+        JsonNode body = jsonMapper.readTree(lastBody.get());
+        assertThat(body.get("amount").asInt()).isEqualTo(49950);
+        assertThat(body.get("currency").asString()).isEqualTo("INR");
+        assertThat(body.get("receipt").asString()).startsWith("rcpt_");
+    }
+
+    @Test
+    @DisplayName("A 4xx from the gateway should be a bad request and not trip the breaker")
+    void createOrder_WithRejectedOrder_ShouldThrowBadRequest() {
+        // Given
+        stub.set(new StubResponse(400, "{\"error\":{\"code\":\"BAD_REQUEST_ERROR\"}}", 0));
+
+        // When / Then
+        for (int i = 0; i <= FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> razorpayService.createOrder(BigDecimal.TEN))
+                    .isInstanceOf(BadRequestException.class);
+        }
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(hits.get()).isEqualTo(FAILURE_THRESHOLD + 1);
+    }
+
+    @Test
+    @DisplayName("Gateway 401 and 429 are not the customer's fault and should not be a bad request")
+    void createOrder_WithAuthFailureOrRateLimit_ShouldBeUpstreamErrors() {
+        // Given / When / Then
+        stub.set(new StubResponse(401, "{\"error\":{\"code\":\"BAD_REQUEST_ERROR\"}}", 0));
+        assertThatThrownBy(() -> razorpayService.createOrder(BigDecimal.TEN))
+                .isInstanceOf(PaymentGatewayException.class);
+
+        stub.set(new StubResponse(429, "{}", 0));
+        assertThatThrownBy(() -> razorpayService.createOrder(BigDecimal.TEN))
+                .isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("Repeated gateway errors should open the circuit and fail fast without calling the gateway")
+    void createOrder_AfterRepeatedServerErrors_ShouldFailFast() {
+        // Given
+        stub.set(new StubResponse(503, "{}", 0));
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> razorpayService.createOrder(BigDecimal.TEN))
+                    .isInstanceOf(PaymentGatewayException.class);
+        }
+
+        // When / Then
+        stub.set(StubResponse.ok("{\"id\":\"order_TEST123\"}"));
+        assertThatThrownBy(() -> razorpayService.createOrder(BigDecimal.TEN))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThat(hits.get()).isEqualTo(FAILURE_THRESHOLD);
+    }
+
+    @Test
+    @DisplayName("A gateway slower than the read timeout should fail with a gateway error")
+    void createOrder_WithSlowGateway_ShouldTimeOut() {
+        // Given
+        stub.set(new StubResponse(200, "{\"id\":\"order_SLOW\"}", 2_000));
+
+        // When / Then
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> razorpayService.createOrder(BigDecimal.TEN))
+                .isInstanceOf(PaymentGatewayException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_500));
+    }
+
+    @Test
+    @DisplayName("Calls beyond the bulkhead limit should be rejected immediately")
+    void createOrder_BeyondConcurrencyLimit_ShouldBeRejected() throws Exception {
+        // Given: one call parked inside the gateway holds the only permit
+        CountDownLatch release = new CountDownLatch(1);
+        stub.set(new StubResponse(200, "{\"id\":\"order_HELD\"}", 0, release));
+        CompletableFuture<RazorpayOrderResponse> held =
+                CompletableFuture.supplyAsync(() -> razorpayService.createOrder(BigDecimal.TEN));
+        while (hits.get() == 0)
+            Thread.onSpinWait();
+
+        // When / Then
+        assertThatThrownBy(() -> razorpayService.createOrder(BigDecimal.TEN))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        assertThat(held.get(5, TimeUnit.SECONDS).getOrderId()).isEqualTo("order_HELD");
+        assertThat(hits.get()).isEqualTo(1);
+    }
+
+    private void handleOrder(HttpExchange exchange) throws IOException {
+        hits.incrementAndGet();
+        lastAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+        lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+
+        StubResponse response = stub.get();
+        try {
+            if (response.delayMillis() > 0)
+                Thread.sleep(response.delayMillis());
+            if (response.release() != null)
+                response.release().await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        try {
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (IOException e) {
+            // client gave up (timeout test)
+        }
+    }
+
+    private record StubResponse(int status, String body, long delayMillis, CountDownLatch release) {
+        StubResponse(int status, String body, long delayMillis) {
+            this(status, body, delayMillis, null);
+        }
+
+        static StubResponse ok(String body) {
+            return new StubResponse(200, body, 0);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.bank.banking_app.service;
+
+import com.bank.banking_app.Transformer.TransactionTransformer;
+import com.bank.banking_app.dto.response.TransactionHistoryResponse;
+import com.bank.banking_app.dto.response.TransactionHistorySliceResponse;
+import com.bank.banking_app.enums.AccountType;
+import com.bank.banking_app.enums.KycStatus;
+import com.bank.banking_app.enums.StatementFormat;
+import com.bank.banking_app.exception.BadRequestException;
+import com.bank.banking_app.exception.ServiceUnavailableException;
+import com.bank.banking_app.models.Account;
+import com.bank.banking_app.models.Users;
+import com.bank.banking_app.repository.AccountRepository;
+import com.bank.banking_app.repository.PaymentRepository;
+import com.bank.banking_app.repository.TransactionRepository;
+import com.bank.banking_app.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Integration tests for TransactionHistoryService
+ * Tests cursor-based paging over an account's transactions and the
+ * streamed statement export
+ */
+@SpringBootTest
+@Transactional
+class TransactionHistoryServiceTest {
+
+    @Autowired
+    private TransactionHistoryService historyService;
+
+    @Autowired
+    private StatementExportService statementExportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private static final String TEST_EMAIL = "history@example.com";
+    private static final int TRANSACTION_COUNT = 25;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+        userRepository.deleteAll();
+
+        setSecurityContext(TEST_EMAIL);
+        Account account = createUserWithActiveAccount();
+
+        for (int i = 1; i <= TRANSACTION_COUNT; i++) {
+            BigDecimal amount = BigDecimal.valueOf(i);
+            transactionRepository.save(
+                    TransactionTransformer.depositTransaction(account, amount, BigDecimal.ZERO, amount));
+        }
+        transactionRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Cursor paging should return every transaction once, newest first")
+    void historyAfter_ShouldWalkAllPagesWithoutGapsOrDuplicates() {
+        // When
+        List<TransactionHistoryResponse> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        TransactionHistorySliceResponse page;
+        do {
+            page = historyService.historyAfter(cursor, 10);
+            seen.addAll(page.getContent());
+            pageSizes.add(page.getContent().size());
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+
+        // Then
+        assertThat(pageSizes).containsExactly(10, 10, 5);
+        assertThat(cursor).isNull();
+        assertThat(seen).extracting(TransactionHistoryResponse::getTransactionId).doesNotHaveDuplicates();
+        assertThat(seen).hasSize(TRANSACTION_COUNT);
+        assertThat(seen).extracting(TransactionHistoryResponse::getCreatedAt)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+    }
+
+    @Test
+    @DisplayName("Page history should honour the requested sort and count every transaction")
+    void history_ShouldReturnSortedPageWithTotal() {
+        // When
+        Page<TransactionHistoryResponse> page =
+                historyService.history(PageRequest.of(1, 10, Sort.by(Sort.Direction.ASC, "amount")));
+
+        // Then
+        assertThat(page.getTotalElements()).isEqualTo(TRANSACTION_COUNT);
+        assertThat(page.getContent()).extracting(TransactionHistoryResponse::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(11), BigDecimal.valueOf(12), BigDecimal.valueOf(13),
+                        BigDecimal.valueOf(14), BigDecimal.valueOf(15), BigDecimal.valueOf(16),
+                        BigDecimal.valueOf(17), BigDecimal.valueOf(18), BigDecimal.valueOf(19),
+                        BigDecimal.valueOf(20));
+    }
+
+    @Test
+    @DisplayName("Malformed cursor should be rejected")
+    void historyAfter_WithMalformedCursor_ShouldThrowException() {
+        assertThatThrownBy(() -> historyService.historyAfter("not-a-cursor", 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("CSV statement should stream every transaction in the range, oldest first")
+    void statement_Csv_ShouldStreamRangeOldestFirst() throws Exception {
+        // When
+        List<String> lines = export(LocalDate.now(), LocalDate.now(), StatementFormat.CSV).lines().toList();
+
+        // Then
+        assertThat(lines).hasSize(TRANSACTION_COUNT + 1);
+        assertThat(lines.getFirst()).startsWith("transactionId,createdAt,");
+        assertThat(lines.get(1)).endsWith(",DEPOSIT,SUCCESS,1.00,0.00,1.00");
+        assertThat(lines.getLast()).endsWith(",DEPOSIT,SUCCESS,25.00,0.00,25.00");
+    }
+
+    @Test
+    @DisplayName("NDJSON statement should hold one object per transaction, and none outside the range")
+    void statement_Ndjson_ShouldRespectRange() throws Exception {
+        assertThat(export(LocalDate.now(), LocalDate.now(), StatementFormat.NDJSON).lines())
+                .hasSize(TRANSACTION_COUNT)
+                .allSatisfy(line -> assertThat(line).startsWith("{\"transactionId\":"));
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        assertThat(export(tomorrow, tomorrow, StatementFormat.NDJSON)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Exports beyond the concurrency limit should be turned away until one closes")
+    void statement_OverConcurrencyLimit_ShouldThrowServiceUnavailable() {
+        LocalDate today = LocalDate.now();
+        List<StatementExportService.Export> open = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++)
+                open.add(statementExportService.open(today, today, StatementFormat.CSV));
+
+            assertThatThrownBy(() -> statementExportService.open(today, today, StatementFormat.CSV))
+                    .isInstanceOf(ServiceUnavailableException.class);
+
+            open.removeFirst().close();
+            open.add(statementExportService.open(today, today, StatementFormat.CSV));
+        } finally {
+            open.forEach(StatementExportService.Export::close);
+        }
+    }
+
+    // Helper methods
+    private String export(LocalDate from, LocalDate to, StatementFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StatementExportService.Export export = statementExportService.open(from, to, format)) {
+            export.writeTo(out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void setSecurityContext(String email) {
+        Authentication auth = new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(auth);
+        SecurityContextHolder.setContext(context);
+    }
+
+    private Account createUserWithActiveAccount() {
+        Users user = Users.builder()
+                .fullName("History Test User")
+                .email(TEST_EMAIL)
+                .phone("9444444444")
+                .password("historypass")
+                .aadhaarNumber("444444444444")
+                .panCardNumber("HISTD1234D")
+                .kycStatus(KycStatus.VERIFIED)
+                .build();
+        user = userRepository.save(user);
+
+        Account account = Account.builder()
+                .accountNumber("500000000001")
+                .accountType(AccountType.SAVINGS)
+                .balance(new BigDecimal("1000.00"))
+                .status(KycStatus.AccountStatus.ACTIVE)
+                .user(user)
+                .build();
+        return accountRepository.save(account);
+    }
+}
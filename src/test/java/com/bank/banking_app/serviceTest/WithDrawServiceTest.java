@@ -114,12 +114,10 @@ public class WithDrawServiceTest {
     @Test
     @DisplayName("Withdraw with inactive account should throw exception")
     void withdraw_WithInactiveAccount_ShouldThrowException() {
-        // Given - recreate with inactive account
-        transactionRepository.deleteAll();
-        accountRepository.deleteAll();
-        userRepository.deleteAll();
-        setSecurityContext("inactive@gmail.com");
-        createUserWithAccount(new BigDecimal("5000.00"), KycStatus.AccountStatus.INACTIVE);
+        // Given - deactivate the account. Recreating the user instead collides
+        // with its own phone: Hibernate flushes inserts before deletes.
+        testAccount.setStatus(KycStatus.AccountStatus.INACTIVE);
+        accountRepository.saveAndFlush(testAccount);
 
         WithDrawRequest request = createWithDraw(new BigDecimal("1000.00"));
 